@@ -0,0 +1,22 @@
+package com.meditrack.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Clock;
+
+/**
+ * The clock reminder scheduling reads the current time from, in UTC like
+ * every stored timestamp. The simulation profile replaces it with a
+ * {@link com.meditrack.util.VirtualClock}.
+ */
+@Configuration
+public class ClockConfig {
+
+	@Bean
+	@Profile("!simulation")
+	public Clock clock() {
+		return Clock.systemUTC();
+	}
+}
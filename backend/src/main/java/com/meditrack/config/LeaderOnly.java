@@ -0,0 +1,24 @@
+package com.meditrack.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated (usually {@code @Scheduled}) method on one node of the
+ * cluster only: the node holding the Redis lease named {@link #value()}.
+ * On the other nodes the invocation is skipped. See
+ * {@link com.meditrack.service.LeaderElectionService}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LeaderOnly {
+
+	/**
+	 * Lease name; methods sharing a name share a leader.
+	 */
+	String value();
+}
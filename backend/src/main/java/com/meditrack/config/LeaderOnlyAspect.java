@@ -0,0 +1,36 @@
+package com.meditrack.config;
+
+import com.meditrack.service.LeaderElectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Skips {@link LeaderOnly} methods unless this node holds the lease. Such
+ * methods should return void; skipped invocations return null.
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class LeaderOnlyAspect {
+
+	private final LeaderElectionService leaderElection;
+
+	@Around("@annotation(leaderOnly)")
+	public Object runOnLeader(ProceedingJoinPoint joinPoint, LeaderOnly leaderOnly) throws Throwable {
+		LeaderElectionService.Lease lease = leaderElection.lead(leaderOnly.value());
+		if (lease == null) {
+			log.debug("Skipping {}: not the leader for '{}'", joinPoint.getSignature().toShortString(), leaderOnly.value());
+			return null;
+		}
+		try {
+			return joinPoint.proceed();
+		} finally {
+			leaderElection.endRun(lease);
+		}
+	}
+}
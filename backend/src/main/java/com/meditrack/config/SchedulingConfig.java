@@ -0,0 +1,16 @@
+package com.meditrack.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs. They work on wall-clock time, so the
+ * simulation profile, which drives reminders from a virtual clock, leaves
+ * them off.
+ */
+@Configuration
+@EnableScheduling
+@Profile("!simulation")
+public class SchedulingConfig {
+}
@@ -0,0 +1,65 @@
+package com.meditrack.config;
+
+import com.meditrack.entity.NotificationOutbox;
+import com.meditrack.util.QueryCounter;
+import com.meditrack.util.StubChannel;
+import com.meditrack.util.VirtualClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Beans of the reminder simulation profile: a virtual clock in place of the
+ * system clock, stub SMS and email channels in place of Twilio and SMTP, and
+ * a statement counter around the data source.
+ */
+@Configuration
+@Profile("simulation")
+public class SimulationConfig {
+
+	@Bean
+	public static QueryCounter queryCounter() {
+		return new QueryCounter();
+	}
+
+	@Bean
+	public static BeanPostProcessor queryCountingDataSource(QueryCounter queryCounter) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return bean instanceof DataSource dataSource ? queryCounter.wrap(dataSource) : bean;
+			}
+		};
+	}
+
+	@Bean
+	public VirtualClock clock() {
+		return new VirtualClock(Instant.now(), ZoneOffset.UTC);
+	}
+
+	@Bean
+	public StubChannel smsStubChannel(@Value("${app.simulation.failure-rate:0}") double failureRate) {
+		return new StubChannel(NotificationOutbox.Channel.SMS, failureRate);
+	}
+
+	@Bean
+	public StubChannel emailStubChannel(@Value("${app.simulation.failure-rate:0}") double failureRate) {
+		return new StubChannel(NotificationOutbox.Channel.EMAIL, failureRate);
+	}
+
+	// Scheduling is off in this profile, so Boot does not provide one
+	@Bean
+	public TaskScheduler taskScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setThreadNamePrefix("simulation-scheduler-");
+		return scheduler;
+	}
+}
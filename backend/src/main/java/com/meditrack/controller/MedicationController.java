@@ -65,4 +65,21 @@ public class MedicationController {
 		return ResponseEntity.status(HttpStatus.CREATED)
 				.body(ApiResponse.success(reminder, "Reminder created successfully"));
 	}
+
+	@PutMapping("/{medicationId}/reminders/{reminderId}")
+	public ResponseEntity<ApiResponse<MedicationReminderDto>> updateReminder(
+			@PathVariable Long medicationId,
+			@PathVariable Long reminderId,
+			@Valid @RequestBody CreateReminderRequest request) {
+		MedicationReminderDto reminder = medicationService.updateReminder(medicationId, reminderId, request);
+		return ResponseEntity.ok(ApiResponse.success(reminder, "Reminder updated successfully"));
+	}
+
+	@DeleteMapping("/{medicationId}/reminders/{reminderId}")
+	public ResponseEntity<ApiResponse<Object>> deleteReminder(
+			@PathVariable Long medicationId,
+			@PathVariable Long reminderId) {
+		medicationService.deleteReminder(medicationId, reminderId);
+		return ResponseEntity.ok(ApiResponse.success(null, "Reminder deleted successfully"));
+	}
 }
@@ -0,0 +1,42 @@
+package com.meditrack.controller;
+
+import com.meditrack.dto.ApiResponse;
+import com.meditrack.service.ReminderAcknowledgementService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Dose acknowledgements are accepted asynchronously: a 202 means the request
+ * was queued, and it is applied within a few seconds.
+ */
+@RestController
+@RequestMapping("/api/reminders")
+@RequiredArgsConstructor
+public class ReminderAcknowledgementController {
+
+	private final ReminderAcknowledgementService acknowledgementService;
+
+	@PostMapping("/{id}/acknowledge")
+	public ResponseEntity<ApiResponse<Void>> acknowledge(@PathVariable Long id) {
+		acknowledgementService.acknowledge(id);
+		return new ResponseEntity<>(ApiResponse.success(null, "Dose acknowledgement accepted"), HttpStatus.ACCEPTED);
+	}
+
+	@PostMapping("/{id}/snooze")
+	public ResponseEntity<ApiResponse<Map<String, LocalDateTime>>> snooze(
+			@PathVariable Long id,
+			@RequestParam(defaultValue = "10") long minutes) {
+		LocalDateTime until = acknowledgementService.snooze(id, minutes);
+		return new ResponseEntity<>(ApiResponse.success(Map.of("snoozedUntil", until), "Snooze accepted"),
+				HttpStatus.ACCEPTED);
+	}
+}
@@ -0,0 +1,31 @@
+package com.meditrack.controller;
+
+import com.meditrack.dto.ApiResponse;
+import com.meditrack.dto.MedicationReminderSummaryDto;
+import com.meditrack.service.ReminderOccurrenceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reminders/occurrences")
+@RequiredArgsConstructor
+public class ReminderOccurrenceController {
+
+	private final ReminderOccurrenceService occurrenceService;
+
+	@GetMapping
+	public ResponseEntity<ApiResponse<List<MedicationReminderSummaryDto>>> getOccurrences(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		List<MedicationReminderSummaryDto> occurrences = occurrenceService.getOccurrences(from, to);
+		return ResponseEntity.ok(ApiResponse.success(occurrences, "Reminder occurrences retrieved successfully"));
+	}
+}
@@ -1,7 +1,12 @@
 package com.meditrack.controller;
 
 import com.meditrack.dto.ApiResponse;
+import com.meditrack.entity.NotificationOutbox;
+import com.meditrack.service.ReminderCatchUpService;
+import com.meditrack.service.ReminderExpiryService;
+import com.meditrack.service.ReminderScheduler;
 import com.meditrack.service.ReminderService;
+import com.meditrack.util.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +15,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -19,6 +26,11 @@ import java.util.Map;
 public class ReminderTestController {
 
 	private final ReminderService reminderService;
+	private final ReminderScheduler reminderScheduler;
+	private final ReminderCatchUpService catchUpService;
+	private final ReminderExpiryService expiryService;
+	private final NotificationService notificationService;
+	private final Clock clock;
 
 	@PostMapping("/process")
 	public ResponseEntity<ApiResponse<Map<String, Object>>> processReminders() {
@@ -26,7 +38,7 @@ public class ReminderTestController {
 			reminderService.processDueReminders();
 			Map<String, Object> result = new HashMap<>();
 			result.put("message", "Reminder processing triggered");
-			result.put("timestamp", java.time.LocalDateTime.now());
+			result.put("timestamp", LocalDateTime.now(clock));
 			return ResponseEntity.ok(ApiResponse.success(result, "Reminders processed successfully"));
 		} catch (Exception e) {
 			return new ResponseEntity<>(ApiResponse.error("Failed to process reminders: " + e.getMessage(),
@@ -38,9 +50,43 @@ public class ReminderTestController {
 	public ResponseEntity<ApiResponse<Map<String, Object>>> getReminderStatus() {
 		Map<String, Object> status = new HashMap<>();
 		status.put("schedulerEnabled", true);
-		status.put("schedulerInterval", "60 seconds (1 minute)");
-		status.put("currentTime", java.time.LocalDateTime.now());
+		status.put("engine", reminderScheduler.isActive() ? "timing-wheel" : "polling");
+		status.put("timingWheelSize", reminderScheduler.size());
+		status.put("catchUpActive", catchUpService.getProgress().active());
+		status.put("smsCircuit", notificationService.circuitState(NotificationOutbox.Channel.SMS));
+		status.put("emailCircuit", notificationService.circuitState(NotificationOutbox.Channel.EMAIL));
+		status.put("currentTime", LocalDateTime.now(clock));
 		status.put("message", "Use POST /api/test/reminders/process to manually trigger reminder processing");
 		return ResponseEntity.ok(ApiResponse.success(status, "Reminder system status"));
 	}
+
+	@GetMapping("/catch-up")
+	public ResponseEntity<ApiResponse<Map<String, Object>>> getCatchUpProgress() {
+		ReminderCatchUpService.CatchUpProgress progress = catchUpService.getProgress();
+		Map<String, Object> result = new HashMap<>();
+		result.put("active", progress.active());
+		result.put("state", progress.state());
+		result.put("startedAt", progress.startedAt());
+		result.put("finishedAt", progress.finishedAt());
+		result.put("backlog", progress.backlog());
+		result.put("processed", progress.processed());
+		result.put("remaining", progress.remaining());
+		result.put("markedMissed", progress.markedMissed());
+		result.put("batchSize", progress.batchSize());
+		result.put("concurrency", progress.concurrency());
+		result.put("providerLatencyMs", progress.providerLatencyMs());
+		return ResponseEntity.ok(ApiResponse.success(result, "Reminder catch-up progress"));
+	}
+
+	@GetMapping("/expiry")
+	public ResponseEntity<ApiResponse<Map<String, Object>>> getExpiryProgress() {
+		ReminderExpiryService.ExpiryProgress progress = expiryService.getProgress();
+		Map<String, Object> result = new HashMap<>();
+		result.put("active", progress.active());
+		result.put("startedAt", progress.startedAt());
+		result.put("finishedAt", progress.finishedAt());
+		result.put("completed", progress.completed());
+		result.put("chunks", progress.chunks());
+		return ResponseEntity.ok(ApiResponse.success(result, "Reminder expiry sweep progress"));
+	}
 }
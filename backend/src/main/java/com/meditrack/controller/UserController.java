@@ -27,6 +27,8 @@ public class UserController {
         userData.put("lastName", user.getLastName());
         userData.put("phoneNumber", user.getPhoneNumber());
         userData.put("mfaEnabled", user.getMfaEnabled());
+        userData.put("reminderDigestMinutes", user.getReminderDigestMinutes());
+        userData.put("timeZone", user.getTimeZone());
         return ResponseEntity.ok(ApiResponse.success(userData, "User profile retrieved successfully"));
     }
 
@@ -45,6 +47,26 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(userData, "Profile updated successfully"));
     }
 
+    @PutMapping("/me/reminder-digest")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateReminderDigest(
+            @RequestParam(required = false) Integer windowMinutes) {
+        User user = userService.updateReminderDigest(windowMinutes);
+        Map<String, Object> response = new HashMap<>();
+        response.put("reminderDigestMinutes", user.getReminderDigestMinutes());
+        String message = user.getReminderDigestMinutes() != null
+                ? "Reminder digest enabled successfully"
+                : "Reminder digest disabled successfully";
+        return ResponseEntity.ok(ApiResponse.success(response, message));
+    }
+
+    @PutMapping("/me/time-zone")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateTimeZone(@RequestParam String timeZone) {
+        User user = userService.updateTimeZone(timeZone);
+        Map<String, Object> response = new HashMap<>();
+        response.put("timeZone", user.getTimeZone());
+        return ResponseEntity.ok(ApiResponse.success(response, "Time zone updated successfully"));
+    }
+
     @PostMapping("/me/toggle-mfa")
     public ResponseEntity<ApiResponse<Map<String, Object>>> toggleMfa() {
         User user = userService.toggleMfa();
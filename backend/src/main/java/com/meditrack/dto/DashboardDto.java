@@ -16,4 +16,6 @@ public class DashboardDto {
 	private List<FamilyMemberSummaryDto> recentFamilyMembers;
 	private List<MedicationReminderSummaryDto> upcomingReminders;
 	private List<HealthRecordSummaryDto> recentHealthRecords;
+	// Sections left out because they failed or timed out; empty when complete
+	private List<String> missingSections;
 }
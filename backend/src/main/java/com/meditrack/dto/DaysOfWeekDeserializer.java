@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.meditrack.util.WeekdayMask;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -21,7 +22,7 @@ public class DaysOfWeekDeserializer extends JsonDeserializer<List<Integer>> {
 				if (dayNode.isInt()) {
 					result.add(dayNode.asInt());
 				} else if (dayNode.isTextual()) {
-					int dayInt = convertDayNameToInt(dayNode.asText());
+					int dayInt = WeekdayMask.dayNumber(dayNode.asText());
 					if (dayInt >= 0) {
 						result.add(dayInt);
 					}
@@ -31,29 +32,4 @@ public class DaysOfWeekDeserializer extends JsonDeserializer<List<Integer>> {
 
 		return result;
 	}
-
-	private int convertDayNameToInt(String dayName) {
-		if (dayName == null)
-			return -1;
-
-		String day = dayName.trim();
-		switch (day.toLowerCase()) {
-			case "sunday":
-				return 0;
-			case "monday":
-				return 1;
-			case "tuesday":
-				return 2;
-			case "wednesday":
-				return 3;
-			case "thursday":
-				return 4;
-			case "friday":
-				return 5;
-			case "saturday":
-				return 6;
-			default:
-				return -1;
-		}
-	}
 }
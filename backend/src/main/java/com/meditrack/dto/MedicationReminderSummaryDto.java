@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Data
@@ -18,6 +19,7 @@ public class MedicationReminderSummaryDto {
 	private Long familyMemberId;
 	private String familyMemberName;
 	private LocalTime reminderTime;
+	private LocalDateTime scheduledAt;
 	private String reminderType;
 	private String status;
 }
@@ -22,5 +22,7 @@ public class RegisterRequest {
     private String lastName;
 
     private String phoneNumber;
+
+    private String timeZone; // IANA zone, e.g. Europe/Berlin; server default if omitted
 }
 
@@ -11,8 +11,6 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Table(name = "medication_reminders")
@@ -34,9 +32,9 @@ public class MedicationReminder {
     @Column(name = "reminder_time", nullable = false)
     private LocalTime reminderTime;
 
-    @Column(name = "days_of_week", columnDefinition = "integer[]")
+    @Column(name = "days_mask", nullable = false)
     @Builder.Default
-    private List<Integer> daysOfWeek = new ArrayList<>(); // 0=Sunday, 6=Saturday
+    private Short daysMask = 0; // Bit 0=Sunday ... bit 6=Saturday, 0=every day (see WeekdayMask)
 
     @Enumerated(EnumType.STRING)
     @Column(name = "reminder_type")
@@ -51,9 +49,21 @@ public class MedicationReminder {
     @Column(name = "last_sent_at")
     private LocalDateTime lastSentAt;
 
+    @Column(name = "last_acknowledged_at")
+    private LocalDateTime lastAcknowledgedAt;
+
     @Column(name = "next_reminder_at")
     private LocalDateTime nextReminderAt;
 
+    @Column(name = "claimed_by")
+    private String claimedBy; // Node currently processing this reminder
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "occurrences_until")
+    private LocalDateTime occurrencesUntil; // Last occurrence in reminder_occurrences
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -67,7 +77,7 @@ public class MedicationReminder {
     }
 
     public enum ReminderStatus {
-        PENDING, SENT, COMPLETED, MISSED
+        PENDING, QUEUED, SENT, COMPLETED, MISSED
     }
 }
 
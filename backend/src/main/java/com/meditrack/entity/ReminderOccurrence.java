@@ -0,0 +1,32 @@
+package com.meditrack.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reminder_occurrences")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderOccurrence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reminder_id", nullable = false)
+    private MedicationReminder reminder;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // Owner of the family member, for per-user range scans
+
+    @Column(name = "scheduled_at", nullable = false)
+    private LocalDateTime scheduledAt;
+}
@@ -49,6 +49,13 @@ public class User {
 	@Builder.Default
 	private Boolean mfaEnabled = false;
 
+	@Column(name = "reminder_digest_minutes")
+	private Integer reminderDigestMinutes; // Null or 0: one notification per reminder
+
+	@Column(name = "time_zone", nullable = false)
+	@Builder.Default
+	private String timeZone = "UTC"; // IANA zone the user's reminder times are in
+
 	@ElementCollection(fetch = FetchType.EAGER)
 	@CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
 	@Column(name = "role")
@@ -0,0 +1,37 @@
+package com.meditrack.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_members", nullable = false)
+    private Long totalMembers;
+
+    @Column(name = "total_medications", nullable = false)
+    private Long totalMedications;
+
+    @Column(name = "total_health_records", nullable = false)
+    private Long totalHealthRecords;
+
+    @Column(name = "total_reminders", nullable = false)
+    private Long totalReminders;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
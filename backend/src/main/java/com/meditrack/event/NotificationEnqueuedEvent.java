@@ -0,0 +1,8 @@
+package com.meditrack.event;
+
+/**
+ * Published when a row is written to the notification outbox so the local
+ * relay can pick it up without waiting for its next poll.
+ */
+public record NotificationEnqueuedEvent() {
+}
@@ -0,0 +1,14 @@
+package com.meditrack.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a reminder's next fire time changes. A null
+ * {@code nextReminderAt} means the reminder was deleted or no longer fires.
+ */
+public record ReminderScheduleChangedEvent(Long reminderId, LocalDateTime nextReminderAt) {
+
+	public static ReminderScheduleChangedEvent removed(Long reminderId) {
+		return new ReminderScheduleChangedEvent(reminderId, null);
+	}
+}
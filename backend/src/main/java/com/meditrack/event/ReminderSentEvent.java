@@ -0,0 +1,10 @@
+package com.meditrack.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after the delivery of a reminder (alone or in a digest) has been
+ * recorded as SENT.
+ */
+public record ReminderSentEvent(Long reminderId, LocalDateTime sentAt) {
+}
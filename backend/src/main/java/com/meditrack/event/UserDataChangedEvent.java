@@ -0,0 +1,8 @@
+package com.meditrack.event;
+
+/**
+ * Published when data shown on a user's dashboard changes: family members,
+ * medications, reminders or health records.
+ */
+public record UserDataChangedEvent(Long userId) {
+}
@@ -0,0 +1,10 @@
+package com.meditrack.event;
+
+import java.time.ZoneId;
+
+/**
+ * Published when a user moves to another time zone, so the fire times of
+ * their reminders can be re-planned.
+ */
+public record UserTimeZoneChangedEvent(Long userId, ZoneId previousZone, ZoneId zone) {
+}
@@ -2,6 +2,8 @@ package com.meditrack.repository;
 
 import com.meditrack.entity.FamilyMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +11,20 @@ import java.util.List;
 @Repository
 public interface FamilyMemberRepository extends JpaRepository<FamilyMember, Long> {
     List<FamilyMember> findByUserId(Long userId);
-}
 
+    List<FamilyMember> findTop5ByUserIdOrderById(Long userId);
+
+    @Query(value = "SELECT (SELECT COUNT(*) FROM medications m WHERE m.family_member_id = :memberId) " +
+           "AS \"medications\", " +
+           "(SELECT COUNT(*) FROM medication_reminders r JOIN medications m ON m.id = r.medication_id " +
+           "WHERE m.family_member_id = :memberId) AS \"reminders\", " +
+           "(SELECT COUNT(*) FROM health_records hr WHERE hr.family_member_id = :memberId) " +
+           "AS \"healthRecords\"", nativeQuery = true)
+    MemberContents countContents(@Param("memberId") Long memberId);
+
+    interface MemberContents {
+        long getMedications();
+        long getReminders();
+        long getHealthRecords();
+    }
+}
@@ -1,7 +1,10 @@
 package com.meditrack.repository;
 
 import com.meditrack.entity.HealthRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,10 @@ import java.util.List;
 @Repository
 public interface HealthRecordRepository extends JpaRepository<HealthRecord, Long> {
     List<HealthRecord> findByFamilyMemberId(Long familyMemberId);
-}
 
+    @Query("SELECT hr FROM HealthRecord hr " +
+           "JOIN FETCH hr.familyMember fm " +
+           "WHERE fm.user.id = :userId " +
+           "ORDER BY hr.recordedDate DESC, hr.id DESC")
+    List<HealthRecord> findRecentForUser(@Param("userId") Long userId, Pageable pageable);
+}
@@ -1,24 +1,152 @@
 package com.meditrack.repository;
 
 import com.meditrack.entity.MedicationReminder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MedicationReminderRepository extends JpaRepository<MedicationReminder, Long> {
     List<MedicationReminder> findByMedicationId(Long medicationId);
     
-    @Query("SELECT DISTINCT mr FROM MedicationReminder mr " +
+    /**
+     * One keyset page of due reminders ordered by (next_reminder_at, id),
+     * starting after the given position. Served by the partial index on
+     * pending reminders, so the cost does not depend on the backlog size.
+     */
+    @Query("SELECT mr FROM MedicationReminder mr " +
            "JOIN FETCH mr.medication m " +
            "JOIN FETCH m.familyMember fm " +
            "JOIN FETCH fm.user u " +
            "WHERE mr.status = 'PENDING' " +
            "AND mr.nextReminderAt <= :now " +
-           "AND mr.nextReminderAt IS NOT NULL")
-    List<MedicationReminder> findDueReminders(@Param("now") LocalDateTime now);
+           "AND (mr.nextReminderAt > :afterAt OR (mr.nextReminderAt = :afterAt AND mr.id > :afterId)) " +
+           "ORDER BY mr.nextReminderAt, mr.id")
+    List<MedicationReminder> findDueChunk(@Param("now") LocalDateTime now,
+                                          @Param("afterAt") LocalDateTime afterAt,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Query("SELECT mr FROM MedicationReminder mr " +
+           "JOIN FETCH mr.medication m " +
+           "JOIN FETCH m.familyMember fm " +
+           "JOIN FETCH fm.user u " +
+           "WHERE mr.id = :id")
+    Optional<MedicationReminder> findWithRecipientById(@Param("id") Long id);
+
+    boolean existsByIdAndStatusAndNextReminderAtLessThanEqual(Long id, MedicationReminder.ReminderStatus status,
+                                                              LocalDateTime now);
+
+    @Query("SELECT COUNT(mr) FROM MedicationReminder mr " +
+           "WHERE mr.status = 'PENDING' AND mr.nextReminderAt <= :now")
+    long countDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Marks up to {@code limit} reminders of medications that ended before
+     * the date at {@code now} (UTC) in the owner's zone as COMPLETED.
+     * {@code latestToday} is the latest date any zone can be at, which keeps
+     * the end date index usable. Queued reminders are left to the dispatcher
+     * and rows locked by the reminder path are skipped; both are picked up by
+     * a later run.
+     */
+    @Modifying
+    @Query(value = "UPDATE medication_reminders " +
+           "SET status = 'COMPLETED', claimed_by = NULL, claimed_until = NULL, updated_at = CURRENT_TIMESTAMP " +
+           "WHERE id IN (" +
+           "  SELECT r.id FROM medication_reminders r " +
+           "  JOIN medications m ON m.id = r.medication_id " +
+           "  JOIN family_members fm ON fm.id = m.family_member_id " +
+           "  JOIN users u ON u.id = fm.user_id " +
+           "  WHERE m.end_date < :latestToday " +
+           "  AND m.end_date < CAST((CAST(:now AS timestamp) AT TIME ZONE 'UTC') AT TIME ZONE u.time_zone AS date) " +
+           "  AND r.status IN ('PENDING', 'SENT', 'MISSED') " +
+           "  LIMIT :limit " +
+           "  FOR UPDATE OF r SKIP LOCKED)", nativeQuery = true)
+    int completeEnded(@Param("now") LocalDateTime now, @Param("latestToday") LocalDate latestToday,
+                      @Param("limit") int limit);
+
+    @Query("SELECT mr.id AS id, mr.nextReminderAt AS nextReminderAt FROM MedicationReminder mr " +
+           "WHERE mr.status = 'PENDING' " +
+           "AND mr.nextReminderAt <= :until " +
+           "AND mr.nextReminderAt IS NOT NULL " +
+           "ORDER BY mr.nextReminderAt")
+    List<ScheduleEntry> findScheduleUntil(@Param("until") LocalDateTime until, Pageable pageable);
+
+    @Query(value = "UPDATE medication_reminders SET claimed_by = :owner, claimed_until = :leaseUntil " +
+           "WHERE id IN (" +
+           "  SELECT id FROM medication_reminders " +
+           "  WHERE status = 'PENDING' AND next_reminder_at <= :now " +
+           "  AND (claimed_until IS NULL OR claimed_until < :now) " +
+           "  ORDER BY next_reminder_at " +
+           "  LIMIT :batchSize " +
+           "  FOR UPDATE SKIP LOCKED) " +
+           "RETURNING id", nativeQuery = true)
+    List<Long> claimDueBatch(@Param("owner") String owner,
+                             @Param("now") LocalDateTime now,
+                             @Param("leaseUntil") LocalDateTime leaseUntil,
+                             @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "UPDATE medication_reminders SET claimed_by = :owner, claimed_until = :leaseUntil " +
+           "WHERE id = :id AND status = 'PENDING' " +
+           "AND (claimed_until IS NULL OR claimed_until < :now OR claimed_by = :owner)", nativeQuery = true)
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Locks the other pending reminders of a user that are due before
+     * {@code windowEnd}, skipping rows another transaction or node holds.
+     */
+    @Query(value = "SELECT mr.id FROM medication_reminders mr " +
+           "JOIN medications m ON m.id = mr.medication_id " +
+           "JOIN family_members fm ON fm.id = m.family_member_id " +
+           "WHERE fm.user_id = :userId AND mr.id <> :excludeId " +
+           "AND mr.status = 'PENDING' AND mr.next_reminder_at < :windowEnd " +
+           "AND (mr.claimed_until IS NULL OR mr.claimed_until < :now OR mr.claimed_by = :owner) " +
+           "ORDER BY mr.next_reminder_at " +
+           "FOR UPDATE OF mr SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDigestSiblings(@Param("userId") Long userId,
+                                  @Param("excludeId") Long excludeId,
+                                  @Param("windowEnd") LocalDateTime windowEnd,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("owner") String owner);
+
+    @Query("SELECT mr FROM MedicationReminder mr " +
+           "JOIN FETCH mr.medication m " +
+           "JOIN FETCH m.familyMember fm " +
+           "JOIN FETCH fm.user u " +
+           "WHERE mr.id IN :ids " +
+           "ORDER BY mr.nextReminderAt")
+    List<MedicationReminder> findWithMedicationByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Reminders whose materialized occurrences run out before
+     * {@code refillBefore} (or before their medication ends), in id order.
+     */
+    @Query(value = "SELECT r.id FROM medication_reminders r " +
+           "JOIN medications m ON m.id = r.medication_id " +
+           "WHERE r.id > :afterId AND r.status <> 'COMPLETED' " +
+           "AND (m.end_date IS NULL OR m.end_date >= CAST(:now AS date)) " +
+           "AND (r.occurrences_until IS NULL OR r.occurrences_until < LEAST(:refillBefore, m.end_date + 1)) " +
+           "ORDER BY r.id " +
+           "LIMIT :limit", nativeQuery = true)
+    List<Long> findNeedingOccurrences(@Param("now") LocalDateTime now,
+                                      @Param("refillBefore") LocalDateTime refillBefore,
+                                      @Param("afterId") Long afterId,
+                                      @Param("limit") int limit);
+
+    interface ScheduleEntry {
+        Long getId();
+        LocalDateTime getNextReminderAt();
+    }
 }
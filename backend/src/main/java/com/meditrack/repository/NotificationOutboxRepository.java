@@ -0,0 +1,72 @@
+package com.meditrack.repository;
+
+import com.meditrack.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_outbox " +
+           "(idempotency_key, channel, priority, recipient, subject, body, reminder_id, next_reminder_at, available_at) " +
+           "VALUES (:key, :channel, :priority, :recipient, :subject, :body, :reminderId, :nextReminderAt, :availableAt) " +
+           "ON CONFLICT (idempotency_key) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("key") String idempotencyKey,
+                @Param("channel") String channel,
+                @Param("priority") String priority,
+                @Param("recipient") String recipient,
+                @Param("subject") String subject,
+                @Param("body") String body,
+                @Param("reminderId") Long reminderId,
+                @Param("nextReminderAt") LocalDateTime nextReminderAt,
+                @Param("availableAt") LocalDateTime availableAt);
+
+    @Query(value = "INSERT INTO notification_outbox " +
+           "(idempotency_key, kind, channel, recipient, subject, body, available_at) " +
+           "VALUES (:key, 'DIGEST', :channel, :recipient, :subject, :body, :availableAt) " +
+           "ON CONFLICT (idempotency_key) DO NOTHING " +
+           "RETURNING id", nativeQuery = true)
+    List<Long> enqueueDigest(@Param("key") String idempotencyKey,
+                             @Param("channel") String channel,
+                             @Param("recipient") String recipient,
+                             @Param("subject") String subject,
+                             @Param("body") String body,
+                             @Param("availableAt") LocalDateTime availableAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_outbox_reminders (outbox_id, reminder_id, next_reminder_at) " +
+           "VALUES (:outboxId, :reminderId, :nextReminderAt)", nativeQuery = true)
+    int addDigestReminder(@Param("outboxId") Long outboxId,
+                          @Param("reminderId") Long reminderId,
+                          @Param("nextReminderAt") LocalDateTime nextReminderAt);
+
+    @Query(value = "UPDATE notification_outbox " +
+           "SET status = 'SENDING', locked_until = :lockedUntil, attempts = attempts + 1 " +
+           "WHERE id IN (" +
+           "  SELECT id FROM notification_outbox " +
+           "  WHERE priority = :priority " +
+           "  AND ((status = 'PENDING' AND available_at <= :now) " +
+           "  OR (status = 'SENDING' AND locked_until < :now)) " +
+           "  ORDER BY available_at " +
+           "  LIMIT :limit " +
+           "  FOR UPDATE SKIP LOCKED) " +
+           "RETURNING *", nativeQuery = true)
+    List<NotificationOutbox> claimBatch(@Param("priority") String priority,
+                                        @Param("now") LocalDateTime now,
+                                        @Param("lockedUntil") LocalDateTime lockedUntil,
+                                        @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM notification_outbox WHERE status IN ('PENDING', 'SENDING')", nativeQuery = true)
+    long countUnsent();
+
+    @Modifying
+    @Query(value = "DELETE FROM notification_outbox WHERE status = 'SENT' AND sent_at < :cutoff", nativeQuery = true)
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,52 @@
+package com.meditrack.repository;
+
+import com.meditrack.entity.ReminderOccurrence;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReminderOccurrenceRepository extends JpaRepository<ReminderOccurrence, Long> {
+
+    @Query("SELECT o FROM ReminderOccurrence o " +
+           "JOIN FETCH o.reminder r " +
+           "JOIN FETCH r.medication m " +
+           "JOIN FETCH m.familyMember fm " +
+           "JOIN FETCH fm.user " +
+           "WHERE o.userId = :userId " +
+           "AND o.scheduledAt >= :from AND o.scheduledAt < :to " +
+           "AND r.status IN ('PENDING', 'QUEUED', 'SENT') " +
+           "AND (m.endDate IS NULL OR m.endDate >= :today) " +
+           "ORDER BY o.scheduledAt, r.id")
+    List<ReminderOccurrence> findForUserBetween(@Param("userId") Long userId,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("today") LocalDate today,
+                                                Pageable pageable);
+
+    @Query("SELECT o.reminder.id AS reminderId, COUNT(o) AS upcoming FROM ReminderOccurrence o " +
+           "WHERE o.reminder.id IN :reminderIds AND o.scheduledAt > :now " +
+           "GROUP BY o.reminder.id")
+    List<UpcomingCount> countUpcoming(@Param("reminderIds") List<Long> reminderIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM ReminderOccurrence o WHERE o.reminder.id = :reminderId AND o.scheduledAt > :after")
+    int deleteByReminderIdAfter(@Param("reminderId") Long reminderId, @Param("after") LocalDateTime after);
+
+    @Modifying
+    @Query(value = "DELETE FROM reminder_occurrences WHERE id IN (" +
+           "  SELECT id FROM reminder_occurrences WHERE scheduled_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    interface UpcomingCount {
+        Long getReminderId();
+        long getUpcoming();
+    }
+}
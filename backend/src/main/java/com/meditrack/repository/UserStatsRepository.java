@@ -0,0 +1,78 @@
+package com.meditrack.repository;
+
+import com.meditrack.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Counts recomputed from the source tables for the users matched by u
+    String RECOUNT = "INSERT INTO user_stats " +
+            "(user_id, total_members, total_medications, total_health_records, total_reminders, updated_at) " +
+            "SELECT u.id, " +
+            "(SELECT COUNT(*) FROM family_members fm WHERE fm.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM medications m " +
+            "  JOIN family_members fm ON fm.id = m.family_member_id WHERE fm.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM health_records hr " +
+            "  JOIN family_members fm ON fm.id = hr.family_member_id WHERE fm.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM medication_reminders r " +
+            "  JOIN medications m ON m.id = r.medication_id " +
+            "  JOIN family_members fm ON fm.id = m.family_member_id WHERE fm.user_id = u.id), " +
+            "CURRENT_TIMESTAMP FROM users u ";
+
+    @Modifying
+    @Query(value = "UPDATE user_stats SET total_members = total_members + :members, " +
+           "total_medications = total_medications + :medications, " +
+           "total_health_records = total_health_records + :healthRecords, " +
+           "total_reminders = total_reminders + :reminders, updated_at = CURRENT_TIMESTAMP " +
+           "WHERE user_id = :userId", nativeQuery = true)
+    int adjust(@Param("userId") Long userId,
+               @Param("members") long members,
+               @Param("medications") long medications,
+               @Param("healthRecords") long healthRecords,
+               @Param("reminders") long reminders);
+
+    @Modifying
+    @Query(value = RECOUNT + "WHERE u.id = :userId ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int initialize(@Param("userId") Long userId);
+
+    // A row inserted concurrently did not see this transaction's change, so the deltas are added to it
+    @Modifying
+    @Query(value = RECOUNT + "WHERE u.id = :userId " +
+           "ON CONFLICT (user_id) DO UPDATE SET total_members = user_stats.total_members + :members, " +
+           "total_medications = user_stats.total_medications + :medications, " +
+           "total_health_records = user_stats.total_health_records + :healthRecords, " +
+           "total_reminders = user_stats.total_reminders + :reminders, updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int initializeOrAdjust(@Param("userId") Long userId,
+                           @Param("members") long members,
+                           @Param("medications") long medications,
+                           @Param("healthRecords") long healthRecords,
+                           @Param("reminders") long reminders);
+
+    @Query(value = "SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findUserIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Holds back counter updates of the range while it is recounted
+    @Query(value = "SELECT user_id FROM user_stats WHERE user_id BETWEEN :fromId AND :toId FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query(value = RECOUNT + "WHERE u.id BETWEEN :fromId AND :toId " +
+           "ON CONFLICT (user_id) DO UPDATE SET total_members = EXCLUDED.total_members, " +
+           "total_medications = EXCLUDED.total_medications, " +
+           "total_health_records = EXCLUDED.total_health_records, " +
+           "total_reminders = EXCLUDED.total_reminders, updated_at = EXCLUDED.updated_at " +
+           "WHERE (user_stats.total_members, user_stats.total_medications, " +
+           "user_stats.total_health_records, user_stats.total_reminders) IS DISTINCT FROM " +
+           "(EXCLUDED.total_members, EXCLUDED.total_medications, " +
+           "EXCLUDED.total_health_records, EXCLUDED.total_reminders)", nativeQuery = true)
+    int reconcileRange(@Param("fromId") long fromId, @Param("toId") long toId);
+}
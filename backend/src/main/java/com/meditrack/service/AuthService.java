@@ -10,7 +10,9 @@ import com.meditrack.repository.UserRepository;
 import com.meditrack.security.JwtTokenProvider;
 import com.meditrack.util.NotificationService;
 import com.meditrack.util.OtpService;
+import com.meditrack.util.ZonedSchedule;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -31,11 +33,19 @@ public class AuthService {
     private final OtpService otpService;
     private final NotificationService notificationService;
 
+    @Value("${app.time-zone.default:UTC}")
+    private String defaultTimeZone;
+
     @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already exists");
         }
+        String timeZone = request.getTimeZone() != null && !request.getTimeZone().isBlank()
+                ? request.getTimeZone() : defaultTimeZone;
+        if (ZonedSchedule.parse(timeZone) == null) {
+            throw new BadRequestException("Unknown time zone: " + timeZone);
+        }
 
         User user = User.builder()
                 .email(request.getEmail())
@@ -43,6 +53,7 @@ public class AuthService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .phoneNumber(request.getPhoneNumber())
+                .timeZone(timeZone)
                 .enabled(true)
                 .mfaEnabled(false)
                 .roles(new HashSet<>())
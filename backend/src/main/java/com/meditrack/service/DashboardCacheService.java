@@ -0,0 +1,252 @@
+package com.meditrack.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meditrack.dto.DashboardDto;
+import com.meditrack.event.UserDataChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of the assembled dashboard in Redis, next to the OTP keys.
+ *
+ * Entries are dropped when a {@link UserDataChangedEvent} for the user
+ * commits, or when reminders of the user change in bulk, e.g. on delivery
+ * write-backs and acknowledgements, and expire after {@code ttl-seconds} in case an invalidation is
+ * lost. Each user has a generation counter that invalidation bumps; a
+ * dashboard is only stored if the generation is still the one read before
+ * building it, so a build that raced a write cannot put stale data back.
+ * On a miss one caller per user takes a short lock and builds the
+ * dashboard, while the others wait up to {@code lock-ms} for its result
+ * before building their own. Partial dashboards are not stored.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCacheService {
+
+	private static final String KEY_PREFIX = "dashboard:";
+
+	private static final long GENERATION_TTL_MS = TimeUnit.DAYS.toMillis(1);
+
+	private static final long WAIT_STEP_MS = 25;
+
+	private static final String OWNERS_SQL = "SELECT DISTINCT fm.user_id FROM medication_reminders r " +
+			"JOIN medications m ON m.id = r.medication_id " +
+			"JOIN family_members fm ON fm.id = m.family_member_id " +
+			"WHERE r.id = ANY(?)";
+
+	private static final RedisScript<Long> STORE = new DefaultRedisScript<>(
+			"if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+			"redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+			"return 1", Long.class);
+
+	private static final RedisScript<Long> INVALIDATE = new DefaultRedisScript<>(
+			"redis.call('INCR', KEYS[2]) " +
+			"redis.call('PEXPIRE', KEYS[2], ARGV[1]) " +
+			"return redis.call('DEL', KEYS[1])", Long.class);
+
+	private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[3]) == ARGV[1] then return redis.call('DEL', KEYS[3]) end " +
+			"return 0", Long.class);
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final ObjectMapper objectMapper;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Value("${app.dashboard.cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.dashboard.cache.ttl-seconds:60}")
+	private long ttlSeconds;
+
+	@Value("${app.dashboard.cache.lock-ms:2000}")
+	private long lockMs;
+
+	/**
+	 * The cached dashboard of {@code userId}, or the one {@code loader}
+	 * builds. Redis failures fall back to the loader.
+	 */
+	public DashboardDto get(Long userId, Supplier<DashboardDto> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		List<String> keys = keys(userId);
+		List<Object> cached;
+		try {
+			cached = redisTemplate.opsForValue().multiGet(keys.subList(0, 2));
+		} catch (Exception e) {
+			log.warn("Dashboard cache unavailable: {}", e.getMessage());
+			return loader.get();
+		}
+		DashboardDto dashboard = cached != null ? read(cached.get(0)) : null;
+		if (dashboard != null) {
+			return dashboard;
+		}
+		String generation = cached != null && cached.get(1) != null ? cached.get(1).toString() : "0";
+
+		String token = UUID.randomUUID().toString();
+		if (!tryLock(keys, token)) {
+			dashboard = awaitOther(keys);
+			if (dashboard != null) {
+				return dashboard;
+			}
+		}
+		try {
+			dashboard = loader.get();
+			if (dashboard.getMissingSections() == null || dashboard.getMissingSections().isEmpty()) {
+				store(keys, generation, dashboard);
+			}
+			return dashboard;
+		} finally {
+			execute(UNLOCK, keys, token);
+		}
+	}
+
+	/**
+	 * Collects the users changed in the current transaction and invalidates
+	 * them once it commits; outside a transaction they are invalidated
+	 * straight away.
+	 */
+	@EventListener
+	public void onUserDataChanged(UserDataChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			invalidate(List.of(event.userId()));
+			return;
+		}
+		@SuppressWarnings("unchecked")
+		Set<Long> changed = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+		if (changed == null) {
+			Set<Long> users = new LinkedHashSet<>();
+			TransactionSynchronizationManager.bindResource(this, users);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(DashboardCacheService.this);
+					if (status == STATUS_COMMITTED) {
+						invalidate(users);
+					}
+				}
+			});
+			changed = users;
+		}
+		changed.add(event.userId());
+	}
+
+	/**
+	 * Invalidates the dashboards of the users owning {@code reminderIds},
+	 * once per user, for writers that change reminders in bulk without
+	 * knowing their owners. Inside a transaction this happens on commit.
+	 */
+	public void onRemindersChanged(Collection<Long> reminderIds) {
+		if (!enabled || reminderIds.isEmpty()) {
+			return;
+		}
+		List<Long> owners = jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(OWNERS_SQL);
+			statement.setArray(1, connection.createArrayOf("bigint", reminderIds.toArray()));
+			return statement;
+		}, (rs, rowNum) -> rs.getLong(1));
+		owners.forEach(userId -> onUserDataChanged(new UserDataChangedEvent(userId)));
+	}
+
+	public void invalidate(Collection<Long> userIds) {
+		for (Long userId : userIds) {
+			try {
+				execute(INVALIDATE, keys(userId), String.valueOf(GENERATION_TTL_MS));
+			} catch (Exception e) {
+				log.warn("Could not invalidate the dashboard of user {}: {}", userId, e.getMessage());
+			}
+		}
+	}
+
+	private boolean tryLock(List<String> keys, String token) {
+		try {
+			Boolean locked = redisTemplate.opsForValue().setIfAbsent(keys.get(2), token, lockMs, TimeUnit.MILLISECONDS);
+			return Boolean.TRUE.equals(locked);
+		} catch (Exception e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Polls for the dashboard another caller is building; null if it does
+	 * not show up within {@code lock-ms}.
+	 */
+	private DashboardDto awaitOther(List<String> keys) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lockMs);
+		try {
+			while (System.nanoTime() - deadline < 0) {
+				TimeUnit.MILLISECONDS.sleep(WAIT_STEP_MS);
+				DashboardDto dashboard = read(redisTemplate.opsForValue().get(keys.get(0)));
+				if (dashboard != null) {
+					return dashboard;
+				}
+				if (!Boolean.TRUE.equals(redisTemplate.hasKey(keys.get(2)))) {
+					return null;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			log.warn("Dashboard cache unavailable: {}", e.getMessage());
+		}
+		return null;
+	}
+
+	private void store(List<String> keys, String generation, DashboardDto dashboard) {
+		try {
+			execute(STORE, keys, generation, objectMapper.writeValueAsString(dashboard),
+					String.valueOf(TimeUnit.SECONDS.toMillis(ttlSeconds)));
+		} catch (Exception e) {
+			log.warn("Could not cache dashboard: {}", e.getMessage());
+		}
+	}
+
+	private DashboardDto read(Object value) {
+		if (value == null) {
+			return null;
+		}
+		try {
+			return objectMapper.readValue(value.toString(), DashboardDto.class);
+		} catch (Exception e) {
+			log.warn("Discarding unreadable cached dashboard: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Long execute(RedisScript<Long> script, List<String> keys, String... args) {
+		// Integer replies come back as Long; the serializer only applies to arguments
+		RedisSerializer<String> serializer = RedisSerializer.string();
+		return redisTemplate.execute(script, serializer, (RedisSerializer<Long>) (RedisSerializer<?>) serializer,
+				keys, (Object[]) args);
+	}
+
+	private static List<String> keys(Long userId) {
+		// Hash tag keeps a user's keys in one slot on Redis Cluster
+		String base = KEY_PREFIX + "{" + userId + "}";
+		return List.of(base, base + ":generation", base + ":lock");
+	}
+}
@@ -3,91 +3,192 @@ package com.meditrack.service;
 import com.meditrack.dto.*;
 import com.meditrack.entity.FamilyMember;
 import com.meditrack.entity.HealthRecord;
-import com.meditrack.entity.Medication;
-import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.UserStats;
 import com.meditrack.repository.FamilyMemberRepository;
 import com.meditrack.repository.HealthRecordRepository;
-import com.meditrack.repository.MedicationRepository;
+import com.meditrack.util.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Assembles the dashboard from independent sections: counts, recent family
+ * members, upcoming doses and recent health records. The sections load in
+ * parallel on a small pool, each in its own transaction, so a dashboard
+ * takes as long as its slowest section rather than the sum of all four.
+ * Every running section holds a pooled connection, so the pool gets at most
+ * half of {@code maximum-pool-size} threads, leaving the rest to request
+ * threads, schedulers and the notification dispatcher; sections beyond
+ * that wait in the queue.
+ * Sections still missing {@code section-timeout-ms} after the start are
+ * left out and listed in {@link DashboardDto#getMissingSections()}; such a
+ * partial dashboard is not cached.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
 	private final FamilyMemberRepository familyMemberRepository;
 	private final HealthRecordRepository healthRecordRepository;
-	private final MedicationRepository medicationRepository;
+	private final ReminderOccurrenceService occurrenceService;
 	private final UserService userService;
+	private final UserStatsService userStatsService;
+	private final DashboardCacheService dashboardCache;
+	private final UserDataGenerationService generations;
+	private final PlatformTransactionManager transactionManager;
+	private final Clock clock;
+
+	@Value("${app.dashboard.sections.threads:4}")
+	private int threads;
+
+	@Value("${spring.datasource.hikari.maximum-pool-size:10}")
+	private int connectionPoolSize;
+
+	@Value("${app.dashboard.sections.queue-capacity:200}")
+	private int queueCapacity;
+
+	@Value("${app.dashboard.sections.timeout-ms:1500}")
+	private long sectionTimeoutMs;
+
+	private final SingleFlight<DashboardKey, DashboardDto> dashboardReads = new SingleFlight<>();
+	private ExecutorService sectionPool;
+	private TransactionTemplate sectionTransaction;
+	private TransactionTemplate readOnlySectionTransaction;
+
+	@PostConstruct
+	void init() {
+		AtomicInteger threadCount = new AtomicInteger();
+		int sectionThreads = Math.max(1, Math.min(threads, connectionPoolSize / 2));
+		if (sectionThreads < threads) {
+			log.info("Limiting dashboard sections to {} threads for a pool of {} connections",
+					sectionThreads, connectionPoolSize);
+		}
+		// A full queue runs the section on the request thread instead of failing it
+		sectionPool = new ThreadPoolExecutor(sectionThreads, sectionThreads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "dashboard-section-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		// Statements of a section are cut off once it can no longer make the deadline
+		int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999));
+		sectionTransaction = new TransactionTemplate(transactionManager);
+		sectionTransaction.setTimeout(timeoutSeconds);
+		readOnlySectionTransaction = new TransactionTemplate(transactionManager);
+		readOnlySectionTransaction.setTimeout(timeoutSeconds);
+		readOnlySectionTransaction.setReadOnly(true);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		sectionPool.shutdownNow();
+	}
 
-	@Transactional(readOnly = true)
+	/**
+	 * The current user's dashboard, served from {@link DashboardCacheService}
+	 * while the user's data is unchanged. Concurrent requests of the same
+	 * user share one load, unless the user changed their data after that
+	 * load started.
+	 */
 	public DashboardDto getDashboardData() {
 		Long currentUserId = userService.getCurrentUser().getId();
+		return dashboardReads.execute(new DashboardKey(currentUserId, generations.current(currentUserId)),
+				() -> dashboardCache.get(currentUserId, () -> buildDashboard(currentUserId)));
+	}
 
-		// Get all family members for the current user
-		List<FamilyMember> familyMembers = familyMemberRepository.findByUserId(currentUserId);
-		List<Long> familyMemberIds = familyMembers.stream()
-				.map(FamilyMember::getId)
-				.collect(Collectors.toList());
-
-		// Get statistics
-		long totalMembers = familyMembers.size();
-
-		List<Medication> allMedications = medicationRepository.findAll().stream()
-				.filter(med -> familyMemberIds.contains(med.getFamilyMember().getId()))
-				.collect(Collectors.toList());
-		long totalMedications = allMedications.size();
-
-		List<HealthRecord> allHealthRecords = healthRecordRepository.findAll().stream()
-				.filter(record -> familyMemberIds.contains(record.getFamilyMember().getId()))
-				.collect(Collectors.toList());
-		long totalHealthRecords = allHealthRecords.size();
-
-		long totalReminders = allMedications.stream()
-				.mapToLong(med -> med.getReminders().size())
-				.sum();
+	private DashboardDto buildDashboard(Long userId) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+		// Not read-only: a user's first stats read creates their counter row
+		Future<DashboardStatsDto> stats = submit(sectionTransaction, () -> loadStats(userId));
+		Future<List<FamilyMemberSummaryDto>> recentFamilyMembers =
+				submit(readOnlySectionTransaction, () -> loadRecentFamilyMembers(userId));
+		Future<List<MedicationReminderSummaryDto>> upcomingReminders =
+				submit(readOnlySectionTransaction, () -> loadUpcomingReminders(userId));
+		Future<List<HealthRecordSummaryDto>> recentHealthRecords =
+				submit(readOnlySectionTransaction, () -> loadRecentHealthRecords(userId));
+
+		List<String> missing = new ArrayList<>();
+		return DashboardDto.builder()
+				.stats(await("stats", stats, deadline, missing))
+				.recentFamilyMembers(await("recentFamilyMembers", recentFamilyMembers, deadline, missing))
+				.upcomingReminders(await("upcomingReminders", upcomingReminders, deadline, missing))
+				.recentHealthRecords(await("recentHealthRecords", recentHealthRecords, deadline, missing))
+				.missingSections(missing)
+				.build();
+	}
 
-		DashboardStatsDto stats = DashboardStatsDto.builder()
-				.totalMembers(totalMembers)
-				.totalMedications(totalMedications)
-				.totalHealthRecords(totalHealthRecords)
-				.totalReminders(totalReminders)
+	private DashboardStatsDto loadStats(Long userId) {
+		UserStats counts = userStatsService.getStats(userId);
+		return DashboardStatsDto.builder()
+				.totalMembers(counts.getTotalMembers())
+				.totalMedications(counts.getTotalMedications())
+				.totalHealthRecords(counts.getTotalHealthRecords())
+				.totalReminders(counts.getTotalReminders())
 				.build();
+	}
 
-		// Get recent family members (limit 5)
-		List<FamilyMemberSummaryDto> recentFamilyMembers = familyMembers.stream()
-				.limit(5)
+	private List<FamilyMemberSummaryDto> loadRecentFamilyMembers(Long userId) {
+		return familyMemberRepository.findTop5ByUserIdOrderById(userId).stream()
 				.map(this::toFamilyMemberSummary)
 				.collect(Collectors.toList());
+	}
 
-		// Get upcoming reminders (limit 5)
-		List<MedicationReminderSummaryDto> upcomingReminders = allMedications.stream()
-				.flatMap(med -> med.getReminders().stream()
-						.filter(reminder -> reminder.getStatus() == MedicationReminder.ReminderStatus.PENDING)
-						.map(reminder -> toReminderSummary(reminder, med, familyMembers)))
-				.sorted(Comparator.comparing(MedicationReminderSummaryDto::getReminderTime))
-				.limit(5)
-				.collect(Collectors.toList());
+	// Upcoming doses over the next week
+	private List<MedicationReminderSummaryDto> loadUpcomingReminders(Long userId) {
+		LocalDateTime now = LocalDateTime.now(clock);
+		return occurrenceService.findOccurrences(userId, now, now.plusDays(7), 5);
+	}
 
-		// Get recent health records (limit 5, sorted by date descending)
-		List<HealthRecordSummaryDto> recentHealthRecords = allHealthRecords.stream()
-				.sorted(Comparator.comparing(HealthRecord::getRecordedDate).reversed())
-				.limit(5)
-				.map(record -> toHealthRecordSummary(record, familyMembers))
+	private List<HealthRecordSummaryDto> loadRecentHealthRecords(Long userId) {
+		return healthRecordRepository.findRecentForUser(userId, PageRequest.of(0, 5)).stream()
+				.map(this::toHealthRecordSummary)
 				.collect(Collectors.toList());
+	}
 
-		return DashboardDto.builder()
-				.stats(stats)
-				.recentFamilyMembers(recentFamilyMembers)
-				.upcomingReminders(upcomingReminders)
-				.recentHealthRecords(recentHealthRecords)
-				.build();
+	private <T> Future<T> submit(TransactionTemplate transaction, Supplier<T> loader) {
+		return sectionPool.submit(() -> transaction.execute(status -> loader.get()));
+	}
+
+	/**
+	 * The section's result, or null when it failed or missed the deadline,
+	 * in which case it is added to {@code missing}.
+	 */
+	private <T> T await(String section, Future<T> future, long deadline, List<String> missing) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			log.warn("Dashboard section {} timed out after {} ms", section, sectionTimeoutMs);
+		} catch (ExecutionException e) {
+			log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+		}
+		missing.add(section);
+		return null;
 	}
 
 	private FamilyMemberSummaryDto toFamilyMemberSummary(FamilyMember member) {
@@ -99,41 +200,13 @@ public class DashboardService {
 				.build();
 	}
 
-	private MedicationReminderSummaryDto toReminderSummary(
-			MedicationReminder reminder,
-			Medication medication,
-			List<FamilyMember> familyMembers) {
-		FamilyMember member = familyMembers.stream()
-				.filter(m -> m.getId().equals(medication.getFamilyMember().getId()))
-				.findFirst()
-				.orElse(null);
-
-		return MedicationReminderSummaryDto.builder()
-				.id(reminder.getId())
-				.medicationId(medication.getId())
-				.medicationName(medication.getName())
-				.familyMemberId(medication.getFamilyMember().getId())
-				.familyMemberName(member != null ? member.getFirstName() : "Unknown")
-				.reminderTime(reminder.getReminderTime())
-				.reminderType(reminder.getReminderType().name())
-				.status(reminder.getStatus().name())
-				.build();
-	}
-
-	private HealthRecordSummaryDto toHealthRecordSummary(
-			HealthRecord record,
-			List<FamilyMember> familyMembers) {
-		FamilyMember member = familyMembers.stream()
-				.filter(m -> m.getId().equals(record.getFamilyMember().getId()))
-				.findFirst()
-				.orElse(null);
+	private HealthRecordSummaryDto toHealthRecordSummary(HealthRecord record) {
+		FamilyMember member = record.getFamilyMember();
 
 		return HealthRecordSummaryDto.builder()
 				.id(record.getId())
-				.familyMemberId(record.getFamilyMember().getId())
-				.familyMemberName(member != null
-						? member.getFirstName() + " " + member.getLastName()
-						: "Unknown")
+				.familyMemberId(member.getId())
+				.familyMemberName(member.getFirstName() + " " + member.getLastName())
 				.recordType(record.getRecordType())
 				.title(record.getTitle())
 				.recordedDate(record.getRecordedDate())
@@ -141,4 +214,7 @@ public class DashboardService {
 				.unit(record.getUnit())
 				.build();
 	}
+
+	private record DashboardKey(Long userId, long generation) {
+	}
 }
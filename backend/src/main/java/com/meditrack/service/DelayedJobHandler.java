@@ -0,0 +1,16 @@
+package com.meditrack.service;
+
+/**
+ * Runs jobs of one type from the {@link DelayedJobQueue}. Implementations are
+ * Spring beans and are registered by {@link #type()}.
+ */
+public interface DelayedJobHandler {
+
+	String type();
+
+	/**
+	 * Runs one job. Throwing makes the queue retry it with backoff until the
+	 * attempt limit is reached.
+	 */
+	void handle(String jobId, String payload) throws Exception;
+}
@@ -0,0 +1,215 @@
+package com.meditrack.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable delayed jobs on Redis, one sorted set per job type scored by the
+ * due time in epoch milliseconds; payloads and attempt counts live in hashes
+ * next to it.
+ *
+ * Claiming is one script that takes due jobs and pushes their score out by
+ * {@code visibility-ms} in the same step, so a job is handed to one node at
+ * a time and reappears if that node dies before finishing it. A finished job
+ * is removed, a failed one is rescheduled with exponential backoff, and after
+ * {@code max-attempts} it is moved to the {@code :dead} list. Removal and
+ * rescheduling only apply while the job still carries the claimed score, so
+ * a job rescheduled by {@link #schedule} in the meantime is kept.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DelayedJobQueue {
+
+	private static final String KEY_PREFIX = "jobs:";
+
+	private static final RedisScript<Long> SCHEDULE = new DefaultRedisScript<>(
+			"redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1]) " +
+			"redis.call('HSET', KEYS[2], ARGV[1], ARGV[3]) " +
+			"redis.call('HDEL', KEYS[3], ARGV[1]) " +
+			"return 1", Long.class);
+
+	private static final RedisScript<Long> CANCEL = new DefaultRedisScript<>(
+			"redis.call('HDEL', KEYS[2], ARGV[1]) " +
+			"redis.call('HDEL', KEYS[3], ARGV[1]) " +
+			"return redis.call('ZREM', KEYS[1], ARGV[1])", Long.class);
+
+	// Returns id, payload, attempt for every claimed job
+	@SuppressWarnings("rawtypes")
+	private static final RedisScript<List> CLAIM = new DefaultRedisScript<>(
+			"local ids = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+			"local claimed = {} " +
+			"for _, id in ipairs(ids) do " +
+			"  redis.call('ZADD', KEYS[1], ARGV[3], id) " +
+			"  local attempt = redis.call('HINCRBY', KEYS[3], id, 1) " +
+			"  table.insert(claimed, id) " +
+			"  table.insert(claimed, redis.call('HGET', KEYS[2], id) or '') " +
+			"  table.insert(claimed, tostring(attempt)) " +
+			"end " +
+			"return claimed", List.class);
+
+	private static final RedisScript<Long> COMPLETE = new DefaultRedisScript<>(
+			"if tonumber(redis.call('ZSCORE', KEYS[1], ARGV[1])) ~= tonumber(ARGV[2]) then return 0 end " +
+			"redis.call('ZREM', KEYS[1], ARGV[1]) " +
+			"redis.call('HDEL', KEYS[3], ARGV[1]) " +
+			"local payload = redis.call('HGET', KEYS[2], ARGV[1]) " +
+			"redis.call('HDEL', KEYS[2], ARGV[1]) " +
+			"if ARGV[3] == '1' then " +
+			"  redis.call('LPUSH', KEYS[4], ARGV[1] .. '|' .. (payload or '')) " +
+			"  redis.call('LTRIM', KEYS[4], 0, 999) " +
+			"end " +
+			"return 1", Long.class);
+
+	private static final RedisScript<Long> RETRY = new DefaultRedisScript<>(
+			"if tonumber(redis.call('ZSCORE', KEYS[1], ARGV[1])) ~= tonumber(ARGV[2]) then return 0 end " +
+			"return redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])", Long.class);
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	// Looked up lazily: handlers schedule their own jobs through this queue
+	private final ObjectProvider<DelayedJobHandler> handlerBeans;
+
+	@Value("${app.jobs.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.jobs.poll-ms:1000}")
+	private long pollMs;
+
+	@Value("${app.jobs.batch-size:100}")
+	private int batchSize;
+
+	@Value("${app.jobs.visibility-ms:60000}")
+	private long visibilityMs;
+
+	@Value("${app.jobs.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${app.jobs.retry-base-ms:30000}")
+	private long retryBaseMs;
+
+	private final Map<String, DelayedJobHandler> handlers = new HashMap<>();
+	private Thread poller;
+	private volatile boolean running;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		handlerBeans.orderedStream().forEach(handler -> handlers.put(handler.type(), handler));
+		if (!enabled || handlers.isEmpty()) {
+			return;
+		}
+		running = true;
+		poller = new Thread(this::pollLoop, "delayed-job-poller");
+		poller.setDaemon(true);
+		poller.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (poller != null) {
+			poller.interrupt();
+		}
+	}
+
+	/**
+	 * Schedules {@code jobId} of {@code type} to run at {@code dueAt}. An
+	 * existing job with the same id is replaced and its attempts reset.
+	 */
+	public void schedule(String type, String jobId, String payload, LocalDateTime dueAt) {
+		execute(SCHEDULE, keys(type), jobId, String.valueOf(toMillis(dueAt)), payload != null ? payload : "");
+	}
+
+	public boolean cancel(String type, String jobId) {
+		Long removed = execute(CANCEL, keys(type), jobId);
+		return removed != null && removed > 0;
+	}
+
+	private void pollLoop() {
+		while (running) {
+			try {
+				int claimed = 0;
+				for (DelayedJobHandler handler : handlers.values()) {
+					claimed += runDue(handler);
+				}
+				if (claimed == 0) {
+					Thread.sleep(pollMs);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				log.warn("Delayed job poll failed: {}", e.getMessage());
+				sleepQuietly(pollMs);
+			}
+		}
+	}
+
+	int runDue(DelayedJobHandler handler) {
+		long now = System.currentTimeMillis();
+		String leaseScore = String.valueOf(now + visibilityMs);
+		List<?> claimed = execute(CLAIM, keys(handler.type()), String.valueOf(now), String.valueOf(batchSize), leaseScore);
+		if (claimed == null) {
+			return 0;
+		}
+		for (int i = 0; i + 2 < claimed.size(); i += 3) {
+			String jobId = String.valueOf(claimed.get(i));
+			String payload = String.valueOf(claimed.get(i + 1));
+			int attempt = Integer.parseInt(String.valueOf(claimed.get(i + 2)));
+			try {
+				handler.handle(jobId, payload);
+				execute(COMPLETE, keys(handler.type()), jobId, leaseScore, "0");
+			} catch (Exception e) {
+				if (attempt >= maxAttempts) {
+					log.error("{} job {} failed {} times, giving up: {}", handler.type(), jobId, attempt, e.getMessage());
+					execute(COMPLETE, keys(handler.type()), jobId, leaseScore, "1");
+				} else {
+					long retryAt = System.currentTimeMillis() + (retryBaseMs << Math.min(attempt - 1, 10));
+					log.warn("{} job {} failed (attempt {}), retrying: {}", handler.type(), jobId, attempt, e.getMessage());
+					execute(RETRY, keys(handler.type()), jobId, leaseScore, String.valueOf(retryAt));
+				}
+			}
+		}
+		return claimed.size() / 3;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T execute(RedisScript<T> script, List<String> keys, String... args) {
+		// Bulk replies (the claimed list) come back as strings, integer replies as Long
+		RedisSerializer<String> serializer = RedisSerializer.string();
+		return redisTemplate.execute(script, serializer, (RedisSerializer<T>) (RedisSerializer<?>) serializer, keys, (Object[]) args);
+	}
+
+	private static List<String> keys(String type) {
+		// Hash tag keeps a type's keys in one slot on Redis Cluster
+		String base = KEY_PREFIX + "{" + type + "}";
+		return List.of(base, base + ":payloads", base + ":attempts", base + ":dead");
+	}
+
+	private static long toMillis(LocalDateTime time) {
+		return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	private static void sleepQuietly(long millis) {
+		try {
+			TimeUnit.MILLISECONDS.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
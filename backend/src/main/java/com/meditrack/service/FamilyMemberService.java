@@ -3,9 +3,11 @@ package com.meditrack.service;
 import com.meditrack.dto.FamilyMemberDto;
 import com.meditrack.entity.FamilyMember;
 import com.meditrack.entity.User;
+import com.meditrack.event.UserDataChangedEvent;
 import com.meditrack.exception.ResourceNotFoundException;
 import com.meditrack.repository.FamilyMemberRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,8 @@ public class FamilyMemberService {
 
     private final FamilyMemberRepository familyMemberRepository;
     private final UserService userService;
+    private final UserStatsService userStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<FamilyMemberDto> getFamilyMembers() {
         User currentUser = userService.getCurrentUser();
@@ -54,6 +58,8 @@ public class FamilyMemberService {
                 .build();
 
         member = familyMemberRepository.save(member);
+        userStatsService.memberAdded(currentUser.getId());
+        eventPublisher.publishEvent(new UserDataChangedEvent(currentUser.getId()));
         return toDto(member);
     }
 
@@ -75,6 +81,7 @@ public class FamilyMemberService {
         member.setEmail(dto.getEmail());
 
         member = familyMemberRepository.save(member);
+        eventPublisher.publishEvent(new UserDataChangedEvent(currentUser.getId()));
         return toDto(member);
     }
 
@@ -88,7 +95,11 @@ public class FamilyMemberService {
             throw new ResourceNotFoundException("Family member not found");
         }
 
+        FamilyMemberRepository.MemberContents contents = familyMemberRepository.countContents(member.getId());
         familyMemberRepository.delete(member);
+        userStatsService.memberRemoved(currentUser.getId(),
+                contents.getMedications(), contents.getReminders(), contents.getHealthRecords());
+        eventPublisher.publishEvent(new UserDataChangedEvent(currentUser.getId()));
     }
 
     private FamilyMemberDto toDto(FamilyMember member) {
@@ -3,10 +3,12 @@ package com.meditrack.service;
 import com.meditrack.dto.HealthRecordDto;
 import com.meditrack.entity.FamilyMember;
 import com.meditrack.entity.HealthRecord;
+import com.meditrack.event.UserDataChangedEvent;
 import com.meditrack.exception.ResourceNotFoundException;
 import com.meditrack.repository.FamilyMemberRepository;
 import com.meditrack.repository.HealthRecordRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,8 @@ public class HealthRecordService {
     private final HealthRecordRepository healthRecordRepository;
     private final FamilyMemberRepository familyMemberRepository;
     private final UserService userService;
+    private final UserStatsService userStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<HealthRecordDto> getHealthRecords(Long familyMemberId) {
         validateFamilyMemberAccess(familyMemberId);
@@ -74,6 +78,8 @@ public class HealthRecordService {
                 .build();
 
         record = healthRecordRepository.save(record);
+        userStatsService.healthRecordAdded(familyMember.getUser().getId());
+        eventPublisher.publishEvent(new UserDataChangedEvent(familyMember.getUser().getId()));
         return toDto(record);
     }
 
@@ -94,6 +100,7 @@ public class HealthRecordService {
         record.setNotes(dto.getNotes());
 
         record = healthRecordRepository.save(record);
+        eventPublisher.publishEvent(new UserDataChangedEvent(record.getFamilyMember().getUser().getId()));
         return toDto(record);
     }
 
@@ -104,6 +111,8 @@ public class HealthRecordService {
 
         validateFamilyMemberAccess(record.getFamilyMember().getId());
         healthRecordRepository.delete(record);
+        userStatsService.healthRecordRemoved(record.getFamilyMember().getUser().getId());
+        eventPublisher.publishEvent(new UserDataChangedEvent(record.getFamilyMember().getUser().getId()));
     }
 
     private void validateFamilyMemberAccess(Long familyMemberId) {
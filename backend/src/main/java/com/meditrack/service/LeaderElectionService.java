@@ -0,0 +1,268 @@
+package com.meditrack.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease-based leader election for cluster-singleton jobs, on top of Redis.
+ *
+ * A lease is the key {@code leader:<name>} holding {@code <node>|<token>}
+ * with a TTL of {@code lease-ms}. A node that takes over a free lease draws
+ * the next fencing token from its {@code scheduler_fences} row, so every new
+ * leader gets a strictly larger token even after Redis lost its data. The
+ * holder renews all its leases every {@code renew-ms} and deletes them on
+ * shutdown, so another node takes over on its next run rather than after
+ * the TTL.
+ *
+ * Before each run the leader checks that the row still holds its token; a
+ * leader that was superseded (e.g. after a long GC pause) finds a larger
+ * token there and does not run. Long jobs can call {@link #stillLeading()}
+ * between units of work.
+ *
+ * While Redis is unreachable, leadership falls back to the
+ * {@code scheduler_fences} row itself: a node takes it over when it last
+ * held it or when the holder has not run for {@code lease-ms}, keeping the
+ * stored token so a Redis leader resumes once Redis is back. Jobs therefore
+ * keep running on one node instead of stopping cluster-wide.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderElectionService {
+
+	private static final String KEY_PREFIX = "leader:";
+
+	// Returns the held token, -1 if another node leads, or 0 for a lease just
+	// taken that still needs a token
+	private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+			"local current = redis.call('GET', KEYS[1]) " +
+			"if current then " +
+			"  local sep = string.find(current, '|', 1, true) " +
+			"  if string.sub(current, 1, sep - 1) == ARGV[1] then " +
+			"    redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+			"    return tonumber(string.sub(current, sep + 1)) " +
+			"  end " +
+			"  return -1 " +
+			"end " +
+			"redis.call('SET', KEYS[1], ARGV[1] .. '|0', 'PX', ARGV[2]) " +
+			"return 0", Long.class);
+
+	private static final RedisScript<Long> STAMP = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+			"  redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+			"  return 1 " +
+			"end " +
+			"return 0", Long.class);
+
+	private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+			"  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+			"end " +
+			"return 0", Long.class);
+
+	private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+			"if redis.call('GET', KEYS[1]) == ARGV[1] then " +
+			"  return redis.call('DEL', KEYS[1]) " +
+			"end " +
+			"return 0", Long.class);
+
+	private static final String NEXT_TOKEN_SQL = "INSERT INTO scheduler_fences (name, token, holder, updated_at) " +
+			"VALUES (?, 1, ?, CURRENT_TIMESTAMP) " +
+			"ON CONFLICT (name) DO UPDATE SET token = scheduler_fences.token + 1, holder = EXCLUDED.holder, " +
+			"updated_at = EXCLUDED.updated_at " +
+			"RETURNING token";
+
+	private static final String FENCE_SQL = "UPDATE scheduler_fences SET holder = ?, updated_at = CURRENT_TIMESTAMP " +
+			"WHERE name = ? AND token = ?";
+
+	// Takes or keeps the row as a lease of its own, used while Redis is down
+	private static final String FALLBACK_SQL = "INSERT INTO scheduler_fences (name, token, holder, updated_at) " +
+			"VALUES (?, 0, ?, CURRENT_TIMESTAMP) " +
+			"ON CONFLICT (name) DO UPDATE SET holder = EXCLUDED.holder, updated_at = EXCLUDED.updated_at " +
+			"WHERE scheduler_fences.holder = EXCLUDED.holder " +
+			"OR scheduler_fences.updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?) " +
+			"RETURNING token";
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Value("${app.scheduling.leader.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.scheduling.leader.lease-ms:15000}")
+	private long leaseMs;
+
+	@Value("${app.scheduling.leader.renew-ms:5000}")
+	private long renewMs;
+
+	@Value("${app.scheduling.leader.node-id:}")
+	private String nodeId;
+
+	private final Map<String, Lease> held = new ConcurrentHashMap<>();
+	private final ThreadLocal<Lease> current = new ThreadLocal<>();
+	private ScheduledExecutorService renewer;
+
+	public record Lease(String name, long token, long validUntilNanos, boolean fallback) {
+
+		private String value(String owner) {
+			return owner + "|" + token;
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		if (nodeId == null || nodeId.isEmpty()) {
+			nodeId = UUID.randomUUID().toString();
+		}
+		if (!enabled) {
+			return;
+		}
+		renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "leader-lease-renewer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		renewer.scheduleWithFixedDelay(this::renewAll, renewMs, renewMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (renewer != null) {
+			renewer.shutdownNow();
+		}
+		for (Lease lease : held.values()) {
+			try {
+				redisTemplate.execute(RELEASE, List.of(KEY_PREFIX + lease.name()), lease.value(nodeId));
+			} catch (Exception e) {
+				log.debug("Could not release lease '{}': {}", lease.name(), e.getMessage());
+			}
+		}
+		held.clear();
+	}
+
+	/**
+	 * Acquires or refreshes the lease and fences it for one job run. Returns
+	 * null if another node leads or this node's token has been superseded.
+	 * Falls back to the database lease if Redis cannot be reached.
+	 * Callers must pass a non-null result to {@link #endRun(Lease)}.
+	 */
+	public Lease lead(String name) {
+		if (!enabled) {
+			Lease lease = new Lease(name, 0, Long.MAX_VALUE, false);
+			current.set(lease);
+			return lease;
+		}
+
+		Long token;
+		try {
+			token = redisTemplate.execute(ACQUIRE, List.of(KEY_PREFIX + name), nodeId, String.valueOf(leaseMs));
+		} catch (Exception e) {
+			log.warn("Leader election for '{}' unavailable, falling back to the database: {}", name, e.getMessage());
+			return leadFromDatabase(name);
+		}
+		if (token != null && token == 0) {
+			token = takeToken(name);
+		}
+		if (token == null || token < 0) {
+			held.remove(name);
+			return null;
+		}
+
+		Lease lease = new Lease(name, token, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs), false);
+		Lease previous = held.put(name, lease);
+		if (previous == null || previous.token() != token) {
+			log.info("Acquired leadership of '{}' with fencing token {}", name, token);
+		}
+		if (jdbcTemplate.update(FENCE_SQL, nodeId, name, token) == 0) {
+			log.warn("Leadership of '{}' with token {} was superseded, skipping run", name, token);
+			held.remove(name);
+			return null;
+		}
+		current.set(lease);
+		return lease;
+	}
+
+	/**
+	 * Draws the next fencing token for a lease this node just took and
+	 * records it in the lease. Returns -1 if the lease was lost meanwhile.
+	 */
+	private Long takeToken(String name) {
+		Long token = jdbcTemplate.queryForObject(NEXT_TOKEN_SQL, Long.class, name, nodeId);
+		Long stamped = redisTemplate.execute(STAMP, List.of(KEY_PREFIX + name), nodeId + "|0", nodeId + "|" + token,
+				String.valueOf(leaseMs));
+		return stamped != null && stamped > 0 ? token : -1L;
+	}
+
+	private Lease leadFromDatabase(String name) {
+		List<Long> token = jdbcTemplate.queryForList(FALLBACK_SQL, Long.class, name, nodeId, leaseMs / 1000.0);
+		if (token.isEmpty()) {
+			return null;
+		}
+		Lease lease = new Lease(name, token.get(0), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs), true);
+		current.set(lease);
+		return lease;
+	}
+
+	public void endRun(Lease lease) {
+		current.remove();
+	}
+
+	/**
+	 * Whether the job running on this thread still holds its lease and has not
+	 * been fenced off by a newer leader.
+	 */
+	public boolean stillLeading() {
+		Lease lease = current.get();
+		if (lease == null) {
+			return false;
+		}
+		if (!enabled) {
+			return true;
+		}
+		if (lease.fallback()) {
+			// Renews the database lease; fails once another node took it over
+			return !jdbcTemplate.queryForList(FALLBACK_SQL, Long.class, lease.name(), nodeId, leaseMs / 1000.0).isEmpty();
+		}
+		Lease latest = held.get(lease.name());
+		if (latest == null || latest.token() != lease.token() || System.nanoTime() > latest.validUntilNanos()) {
+			return false;
+		}
+		Long fence = jdbcTemplate.queryForObject("SELECT token FROM scheduler_fences WHERE name = ?",
+				Long.class, lease.name());
+		return fence != null && fence == lease.token();
+	}
+
+	private void renewAll() {
+		for (Lease lease : held.values()) {
+			try {
+				Long renewed = redisTemplate.execute(RENEW, List.of(KEY_PREFIX + lease.name()),
+						lease.value(nodeId), String.valueOf(leaseMs));
+				if (renewed != null && renewed > 0) {
+					held.replace(lease.name(), lease,
+							new Lease(lease.name(), lease.token(), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMs), false));
+				} else {
+					log.warn("Lost leadership of '{}' (token {})", lease.name(), lease.token());
+					held.remove(lease.name(), lease);
+				}
+			} catch (Exception e) {
+				log.warn("Could not renew lease '{}': {}", lease.name(), e.getMessage());
+			}
+		}
+	}
+}
@@ -6,19 +6,25 @@ import com.meditrack.dto.MedicationReminderDto;
 import com.meditrack.entity.FamilyMember;
 import com.meditrack.entity.Medication;
 import com.meditrack.entity.MedicationReminder;
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.event.UserDataChangedEvent;
 import com.meditrack.exception.ResourceNotFoundException;
 import com.meditrack.repository.FamilyMemberRepository;
+import com.meditrack.repository.MedicationReminderRepository;
 import com.meditrack.repository.MedicationRepository;
+import com.meditrack.util.SingleFlight;
+import com.meditrack.util.WeekdayMask;
+import com.meditrack.util.ZonedSchedule;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
+import java.time.Clock;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,9 +33,43 @@ public class MedicationService {
 
     private final MedicationRepository medicationRepository;
     private final FamilyMemberRepository familyMemberRepository;
+    private final MedicationReminderRepository reminderRepository;
     private final UserService userService;
-
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReminderOccurrenceService occurrenceService;
+    private final UserStatsService userStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final UserDataGenerationService generations;
+    private final Clock clock;
+
+    private final SingleFlight<MedicationsKey, List<MedicationDto>> medicationReads = new SingleFlight<>();
+
+    /**
+     * Medications of one family member. Concurrent identical requests of
+     * the same user share one read, unless the user changed their data
+     * after that read started.
+     */
     public List<MedicationDto> getMedications(Long familyMemberId) {
+        return medicationReads.execute(currentKey(familyMemberId),
+                () -> transactionTemplate.execute(status -> loadMedications(familyMemberId)));
+    }
+
+    /**
+     * Medications of all the current user's family members. Concurrent
+     * requests of the same user share one read, unless the user changed
+     * their data after that read started.
+     */
+    public List<MedicationDto> getAllMedications() {
+        return medicationReads.execute(currentKey(null),
+                () -> transactionTemplate.execute(status -> loadAllMedications()));
+    }
+
+    private MedicationsKey currentKey(Long familyMemberId) {
+        Long userId = userService.getCurrentUser().getId();
+        return new MedicationsKey(userId, familyMemberId, generations.current(userId));
+    }
+
+    private List<MedicationDto> loadMedications(Long familyMemberId) {
         validateFamilyMemberAccess(familyMemberId);
         List<Medication> medications = medicationRepository.findByFamilyMemberId(familyMemberId);
         return medications.stream()
@@ -37,7 +77,7 @@ public class MedicationService {
                 .collect(Collectors.toList());
     }
 
-    public List<MedicationDto> getAllMedications() {
+    private List<MedicationDto> loadAllMedications() {
         Long currentUserId = userService.getCurrentUser().getId();
         List<FamilyMember> familyMembers = familyMemberRepository.findByUserId(currentUserId);
         List<Long> familyMemberIds = familyMembers.stream()
@@ -53,6 +93,7 @@ public class MedicationService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public MedicationDto getMedicationById(Long id) {
         Medication medication = medicationRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Medication not found"));
@@ -80,6 +121,8 @@ public class MedicationService {
                 .build();
 
         medication = medicationRepository.save(medication);
+        userStatsService.medicationAdded(familyMember.getUser().getId());
+        publishChanged(medication);
         return toDto(medication);
     }
 
@@ -99,6 +142,9 @@ public class MedicationService {
         medication.setPrescribedBy(dto.getPrescribedBy());
 
         medication = medicationRepository.save(medication);
+        // Start and end dates bound the materialized occurrences
+        occurrenceService.rematerialize(medication.getReminders());
+        publishChanged(medication);
         return toDto(medication);
     }
 
@@ -108,7 +154,12 @@ public class MedicationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Medication not found"));
 
         validateFamilyMemberAccess(medication.getFamilyMember().getId());
+        medication.getReminders().forEach(reminder ->
+                eventPublisher.publishEvent(ReminderScheduleChangedEvent.removed(reminder.getId())));
         medicationRepository.delete(medication);
+        userStatsService.medicationRemoved(medication.getFamilyMember().getUser().getId(),
+                medication.getReminders().size());
+        publishChanged(medication);
     }
 
     @Transactional
@@ -119,14 +170,11 @@ public class MedicationService {
         validateFamilyMemberAccess(medication.getFamilyMember().getId());
 
         MedicationReminder.ReminderType reminderType = MedicationReminder.ReminderType.valueOf(request.getReminderType());
-        
-        // Convert day names to integers
-        List<Integer> daysOfWeek = convertDayNamesToIntegers(request.getDaysOfWeek());
 
         MedicationReminder reminder = MedicationReminder.builder()
                 .medication(medication)
                 .reminderTime(request.getReminderTime())
-                .daysOfWeek(daysOfWeek)
+                .daysMask((short) WeekdayMask.fromDayNames(request.getDaysOfWeek()))
                 .reminderType(reminderType)
                 .status(MedicationReminder.ReminderStatus.PENDING)
                 .build();
@@ -139,71 +187,58 @@ public class MedicationService {
         
         // Get the saved reminder
         MedicationReminder savedReminder = medication.getReminders().get(medication.getReminders().size() - 1);
+        occurrenceService.rematerialize(List.of(savedReminder));
+        userStatsService.reminderAdded(medication.getFamilyMember().getUser().getId());
+        eventPublisher.publishEvent(new ReminderScheduleChangedEvent(savedReminder.getId(), savedReminder.getNextReminderAt()));
+        publishChanged(medication);
         return toReminderDto(savedReminder);
     }
-    
-    private List<Integer> convertDayNamesToIntegers(List<String> dayNames) {
-        if (dayNames == null || dayNames.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        List<Integer> result = new ArrayList<>();
-        for (String dayName : dayNames) {
-            int dayInt = convertDayNameToInt(dayName);
-            if (dayInt >= 0) {
-                result.add(dayInt);
-            }
-        }
-        return result;
+
+    @Transactional
+    public MedicationReminderDto updateReminder(Long medicationId, Long reminderId, CreateReminderRequest request) {
+        MedicationReminder reminder = findReminder(medicationId, reminderId);
+
+        reminder.setReminderTime(request.getReminderTime());
+        reminder.setDaysMask((short) WeekdayMask.fromDayNames(request.getDaysOfWeek()));
+        reminder.setReminderType(MedicationReminder.ReminderType.valueOf(request.getReminderType()));
+        reminder.setStatus(MedicationReminder.ReminderStatus.PENDING);
+        reminder.setNextReminderAt(calculateNextReminderTime(reminder));
+
+        reminder = reminderRepository.save(reminder);
+        occurrenceService.rematerialize(List.of(reminder));
+        eventPublisher.publishEvent(new ReminderScheduleChangedEvent(reminder.getId(), reminder.getNextReminderAt()));
+        publishChanged(reminder.getMedication());
+        return toReminderDto(reminder);
     }
-    
-    private int convertDayNameToInt(String dayName) {
-        if (dayName == null) return -1;
-        
-        String day = dayName.trim();
-        switch (day.toLowerCase()) {
-            case "sunday": return 0;
-            case "monday": return 1;
-            case "tuesday": return 2;
-            case "wednesday": return 3;
-            case "thursday": return 4;
-            case "friday": return 5;
-            case "saturday": return 6;
-            default: return -1;
-        }
+
+    @Transactional
+    public void deleteReminder(Long medicationId, Long reminderId) {
+        MedicationReminder reminder = findReminder(medicationId, reminderId);
+
+        Medication medication = reminder.getMedication();
+        medication.getReminders().remove(reminder);
+        reminderRepository.delete(reminder);
+        userStatsService.reminderRemoved(medication.getFamilyMember().getUser().getId());
+        eventPublisher.publishEvent(ReminderScheduleChangedEvent.removed(reminderId));
+        publishChanged(medication);
     }
 
-    private LocalDateTime calculateNextReminderTime(MedicationReminder reminder) {
-        LocalDate today = LocalDate.now();
-        LocalTime reminderTime = reminder.getReminderTime();
-        List<Integer> daysOfWeek = reminder.getDaysOfWeek();
-
-        if (daysOfWeek == null || daysOfWeek.isEmpty()) {
-            // Daily reminder
-            LocalDateTime nextTime = LocalDateTime.of(today, reminderTime);
-            if (nextTime.isBefore(LocalDateTime.now())) {
-                nextTime = nextTime.plusDays(1);
-            }
-            return nextTime;
-        }
+    private MedicationReminder findReminder(Long medicationId, Long reminderId) {
+        MedicationReminder reminder = reminderRepository.findById(reminderId)
+                .filter(r -> r.getMedication().getId().equals(medicationId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reminder not found"));
 
-        // Find next matching day
-        int currentDayOfWeek = today.getDayOfWeek().getValue() % 7; // Convert to 0-6 format
-        for (int i = 0; i < 7; i++) {
-            int dayToCheck = (currentDayOfWeek + i) % 7;
-            if (daysOfWeek.contains(dayToCheck)) {
-                LocalDate targetDate = today.plusDays(i);
-                LocalDateTime nextTime = LocalDateTime.of(targetDate, reminderTime);
-                if (i == 0 && nextTime.isBefore(LocalDateTime.now())) {
-                    // If today's time has passed, find next occurrence
-                    continue;
-                }
-                return nextTime;
-            }
-        }
+        validateFamilyMemberAccess(reminder.getMedication().getFamilyMember().getId());
+        return reminder;
+    }
+    
+    private void publishChanged(Medication medication) {
+        eventPublisher.publishEvent(new UserDataChangedEvent(medication.getFamilyMember().getUser().getId()));
+    }
 
-        // Fallback: next week
-        return LocalDateTime.of(today.plusDays(7), reminderTime);
+    private LocalDateTime calculateNextReminderTime(MedicationReminder reminder) {
+        ZoneId zone = ZonedSchedule.zoneOf(reminder.getMedication().getFamilyMember().getUser());
+        return ZonedSchedule.nextOccurrence(reminder.getDaysMask(), reminder.getReminderTime(), LocalDateTime.now(clock), zone);
     }
 
     private void validateFamilyMemberAccess(Long familyMemberId) {
@@ -238,10 +273,13 @@ public class MedicationService {
                 .id(reminder.getId())
                 .medicationId(reminder.getMedication().getId())
                 .reminderTime(reminder.getReminderTime())
-                .daysOfWeek(reminder.getDaysOfWeek())
+                .daysOfWeek(WeekdayMask.toDayNumbers(reminder.getDaysMask()))
                 .reminderType(reminder.getReminderType().name())
                 .status(reminder.getStatus().name())
                 .build();
     }
-}
 
+    // A null familyMemberId stands for all of the user's family members
+    private record MedicationsKey(Long userId, Long familyMemberId, long generation) {
+    }
+}
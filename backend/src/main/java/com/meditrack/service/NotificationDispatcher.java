@@ -0,0 +1,557 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.entity.NotificationOutbox;
+import com.meditrack.event.NotificationEnqueuedEvent;
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.event.ReminderSentEvent;
+import com.meditrack.repository.NotificationOutboxRepository;
+import com.meditrack.util.ChannelUnavailableException;
+import com.meditrack.util.NotificationService;
+import com.meditrack.util.WeightedLanes;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relays notifications from the outbox table to the providers.
+ *
+ * A relay thread claims batches of ready outbox rows (one statement and one
+ * transaction per batch, {@code FOR UPDATE SKIP LOCKED} so replicas share the
+ * work) into bounded in-memory lanes, one per priority (OTP, escalation,
+ * routine), each claimed separately so a full routine lane never holds back
+ * an OTP. A fixed pool of sender threads drains the lanes by weighted round
+ * robin through the per-channel clients, which keep provider connections
+ * open and throttle to each provider's rate. {@code reserved-senders} extra
+ * threads only serve OTPs and escalations and are not subject to the
+ * concurrency limit, so those never wait for a free sender. A single flusher writes delivery
+ * results back in JDBC batches: delivered rows are marked SENT together with
+ * their reminder (or every reminder linked to a digest) and the dashboards
+ * of the reminders' owners are invalidated on commit, failed rows are
+ * retried with exponential backoff and jitter until {@code max-attempts}.
+ * Messages refused by an open circuit breaker never reached the provider:
+ * they go back to the outbox without using up an attempt and become ready
+ * again once the breaker allows a trial call. Every
+ * reminder delivery attempt is also appended to the delivery history
+ * ({@link ReminderDeliveryLogService}).
+ *
+ * A row only becomes SENT once its result is written back, so a delivery
+ * whose write-back fails must not be sent again when its lease expires.
+ * Results that could not be written are kept and retried with the next
+ * flush for as long as the lease lasts, and every successful delivery
+ * leaves a {@code outbox:delivered:<id>} key in Redis that a later attempt
+ * checks before calling the provider.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+	private static final String DELIVERED_PREFIX = "outbox:delivered:";
+
+	private static final String MARK_SENT_SQL = "UPDATE notification_outbox " +
+			"SET status = 'SENT', sent_at = ?, locked_until = NULL WHERE id = ?";
+
+	private static final String MARK_RETRY_SQL = "UPDATE notification_outbox " +
+			"SET status = 'PENDING', available_at = ?, locked_until = NULL, last_error = ? WHERE id = ?";
+
+	private static final String MARK_DEFERRED_SQL = "UPDATE notification_outbox " +
+			"SET status = 'PENDING', available_at = ?, locked_until = NULL, attempts = attempts - 1, last_error = ? " +
+			"WHERE id = ?";
+
+	private static final String MARK_FAILED_SQL = "UPDATE notification_outbox " +
+			"SET status = 'FAILED', locked_until = NULL, last_error = ? WHERE id = ?";
+
+	private static final String REMINDER_SENT_SQL = "UPDATE medication_reminders " +
+			"SET status = 'SENT', last_sent_at = ?, next_reminder_at = ? " +
+			"WHERE id = ? AND status = 'QUEUED'";
+
+	// A reminder whose delivery failed for good skips this occurrence
+	private static final String REMINDER_FAILED_SQL = "UPDATE medication_reminders " +
+			"SET status = 'PENDING', next_reminder_at = ? " +
+			"WHERE id = ? AND status = 'QUEUED'";
+
+	private static final String DIGEST_SENT_SQL = "UPDATE medication_reminders r " +
+			"SET status = 'SENT', last_sent_at = ?, next_reminder_at = d.next_reminder_at " +
+			"FROM notification_outbox_reminders d " +
+			"WHERE d.outbox_id = ? AND r.id = d.reminder_id AND r.status = 'QUEUED'";
+
+	private static final String DIGEST_FAILED_SQL = "UPDATE medication_reminders r " +
+			"SET status = 'PENDING', next_reminder_at = d.next_reminder_at " +
+			"FROM notification_outbox_reminders d " +
+			"WHERE d.outbox_id = ? AND r.id = d.reminder_id AND r.status = 'QUEUED' " +
+			"RETURNING r.id, r.next_reminder_at";
+
+	private static final String DIGEST_REMINDERS_SQL = "SELECT reminder_id FROM notification_outbox_reminders WHERE outbox_id = ?";
+
+	private final NotificationService notificationService;
+	private final NotificationOutboxRepository outboxRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReminderDeliveryLogService deliveryLog;
+	private final DashboardCacheService dashboardCache;
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final Clock clock;
+
+	@Value("${app.notifications.dispatch.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.notifications.dispatch.delivery-markers:true}")
+	private boolean deliveryMarkers;
+
+	@Value("${app.notifications.dispatch.queue-capacity:1000}")
+	private int queueCapacity;
+
+	@Value("${app.notifications.dispatch.senders:8}")
+	private int senders;
+
+	@Value("${app.notifications.dispatch.reserved-senders:2}")
+	private int reservedSenders;
+
+	@Value("${app.notifications.dispatch.weights.auth:8}")
+	private int authWeight;
+
+	@Value("${app.notifications.dispatch.weights.escalation:4}")
+	private int escalationWeight;
+
+	@Value("${app.notifications.dispatch.weights.routine:1}")
+	private int routineWeight;
+
+	// Floor for breaker deferrals, so a half-open breaker is not hammered with claims
+	@Value("${app.notifications.dispatch.min-defer-ms:1000}")
+	private long minDeferMs;
+
+	@Value("${app.notifications.dispatch.result-flush-ms:500}")
+	private long resultFlushMs;
+
+	@Value("${app.notifications.outbox.batch-size:200}")
+	private int batchSize;
+
+	@Value("${app.notifications.outbox.poll-ms:1000}")
+	private long pollMs;
+
+	@Value("${app.notifications.outbox.lease-seconds:300}")
+	private long leaseSeconds;
+
+	@Value("${app.notifications.outbox.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${app.notifications.outbox.retry-base-seconds:30}")
+	private long retryBaseSeconds;
+
+	@Value("${app.notifications.outbox.retention-days:7}")
+	private long retentionDays;
+
+	private final Object relayMonitor = new Object();
+	private final Object concurrencyMonitor = new Object();
+	private final BlockingQueue<DeliveryResult> results = new LinkedBlockingQueue<>();
+	private WeightedLanes<NotificationOutbox> lanes;
+	private ExecutorService senderPool;
+	private ScheduledExecutorService resultFlusher;
+	private Thread relay;
+	private volatile boolean running;
+	private volatile int concurrencyLimit;
+	private volatile double providerLatencyMs = -1;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			log.info("Notification dispatch threads disabled");
+			return;
+		}
+		lanes = new WeightedLanes<>(new int[] {authWeight, escalationWeight, routineWeight},
+				new int[] {queueCapacity, queueCapacity, queueCapacity});
+		AtomicInteger threadCount = new AtomicInteger();
+		senderPool = Executors.newFixedThreadPool(senders + reservedSenders, runnable -> {
+			Thread thread = new Thread(runnable, "notification-sender-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		running = true;
+		concurrencyLimit = senders;
+		for (int i = 0; i < senders + reservedSenders; i++) {
+			int index = i;
+			senderPool.execute(() -> sendLoop(index));
+		}
+		resultFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "notification-result-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		resultFlusher.scheduleWithFixedDelay(this::flushResults, resultFlushMs, resultFlushMs, TimeUnit.MILLISECONDS);
+		relay = new Thread(this::relayLoop, "notification-outbox-relay");
+		relay.setDaemon(true);
+		relay.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		relay.interrupt();
+		senderPool.shutdownNow();
+		resultFlusher.shutdown();
+		// Rows still in the queue keep their lease and are reclaimed once it expires
+		flushResults();
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onEnqueued(NotificationEnqueuedEvent event) {
+		synchronized (relayMonitor) {
+			relayMonitor.notifyAll();
+		}
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public int queued() {
+		return lanes != null ? lanes.size() : 0;
+	}
+
+	public long unsent() {
+		return outboxRepository.countUnsent();
+	}
+
+	public int senders() {
+		return senders;
+	}
+
+	public int concurrency() {
+		return concurrencyLimit;
+	}
+
+	/**
+	 * Limits how many sender threads deliver at the same time; the others
+	 * park until the limit is raised again. Clamped to [1, senders].
+	 */
+	public void setConcurrency(int limit) {
+		synchronized (concurrencyMonitor) {
+			concurrencyLimit = Math.max(1, Math.min(senders, limit));
+			concurrencyMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Moving average of the time one delivery takes, including the wait for
+	 * the channel's rate limiter. Negative until the first delivery.
+	 */
+	public double providerLatencyMs() {
+		return providerLatencyMs;
+	}
+
+	private void relayLoop() {
+		while (running) {
+			try {
+				boolean more = false;
+				boolean hasRoom = false;
+				for (NotificationOutbox.Priority priority : NotificationOutbox.Priority.values()) {
+					int room = Math.min(lanes.remainingCapacity(priority.ordinal()), batchSize);
+					if (room == 0) {
+						continue;
+					}
+					hasRoom = true;
+					List<NotificationOutbox> claimed = claimBatch(priority, room);
+					// Only this thread fills the lanes, so the claimed rows always fit
+					lanes.addAll(priority.ordinal(), claimed);
+					more |= claimed.size() == room;
+				}
+				if (!more) {
+					synchronized (relayMonitor) {
+						relayMonitor.wait(hasRoom ? pollMs : resultFlushMs);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				log.error("Notification outbox relay failed: {}", e.getMessage(), e);
+				sleepQuietly(pollMs);
+			}
+		}
+	}
+
+	/**
+	 * Claims and delivers every ready outbox row on the calling thread, in
+	 * priority order, writing the results back after each batch. For use
+	 * while the dispatch threads are disabled, e.g. by the reminder
+	 * simulation. Returns the number of rows delivered or attempted.
+	 */
+	public int dispatchPending() {
+		int dispatched = 0;
+		for (NotificationOutbox.Priority priority : NotificationOutbox.Priority.values()) {
+			List<NotificationOutbox> claimed;
+			do {
+				claimed = claimBatch(priority, batchSize);
+				claimed.forEach(this::deliver);
+				flushResults();
+				dispatched += claimed.size();
+			} while (claimed.size() == batchSize);
+		}
+		return dispatched;
+	}
+
+	private List<NotificationOutbox> claimBatch(NotificationOutbox.Priority priority, int limit) {
+		LocalDateTime now = LocalDateTime.now(clock);
+		List<NotificationOutbox> claimed = transactionTemplate.execute(status ->
+				outboxRepository.claimBatch(priority.name(), now, now.plusSeconds(leaseSeconds), limit));
+		return claimed != null ? claimed : Collections.emptyList();
+	}
+
+	private void sendLoop(int index) {
+		boolean reserved = index >= senders;
+		int lowestLane = reserved ? NotificationOutbox.Priority.ESCALATION.ordinal() : NotificationOutbox.Priority.ROUTINE.ordinal();
+		while (running) {
+			NotificationOutbox message;
+			try {
+				if (!reserved) {
+					synchronized (concurrencyMonitor) {
+						while (index >= concurrencyLimit) {
+							concurrencyMonitor.wait();
+						}
+					}
+				}
+				message = lanes.take(lowestLane);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			deliver(message);
+		}
+	}
+
+	private void deliver(NotificationOutbox message) {
+		if (deliveryMarkers && message.getAttempts() > 1 && alreadyDelivered(message)) {
+			log.info("Notification {} was delivered before its result was recorded, not sending again", message.getId());
+			results.add(DeliveryResult.completed(message, null, 0, LocalDateTime.now(clock)));
+			return;
+		}
+		String error = null;
+		long startNanos = System.nanoTime();
+		try {
+			notificationService.deliver(message.getChannel(), message.getPriority(), message.getRecipient(),
+					message.getSubject(), message.getBody());
+			if (deliveryMarkers) {
+				markDelivered(message);
+			}
+		} catch (ChannelUnavailableException e) {
+			long deferMillis = Math.max(e.getRetryAfterMillis(), minDeferMs) + ThreadLocalRandom.current().nextLong(1000);
+			results.add(DeliveryResult.deferred(message, e.getMessage(), LocalDateTime.now(clock), deferMillis));
+			return;
+		} catch (Exception e) {
+			log.warn("Delivery of {} notification {} failed (attempt {}): {}",
+					message.getChannel(), message.getId(), message.getAttempts(), e.getMessage());
+			error = e.getClass().getSimpleName() + ": " + e.getMessage();
+		}
+		long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+		recordLatency(latencyMs);
+		results.add(DeliveryResult.completed(message, error, latencyMs, LocalDateTime.now(clock)));
+	}
+
+	private boolean alreadyDelivered(NotificationOutbox message) {
+		try {
+			return Boolean.TRUE.equals(redisTemplate.hasKey(DELIVERED_PREFIX + message.getId()));
+		} catch (Exception e) {
+			log.debug("Could not check delivery marker of notification {}: {}", message.getId(), e.getMessage());
+			return false;
+		}
+	}
+
+	private void markDelivered(NotificationOutbox message) {
+		try {
+			// Outlives the lease, after which the row could be claimed again
+			redisTemplate.opsForValue().set(DELIVERED_PREFIX + message.getId(), "1", leaseSeconds * 2, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			log.debug("Could not set delivery marker of notification {}: {}", message.getId(), e.getMessage());
+		}
+	}
+
+	private synchronized void recordLatency(long millis) {
+		providerLatencyMs = providerLatencyMs < 0 ? millis : providerLatencyMs * 0.8 + millis * 0.2;
+	}
+
+	private void flushResults() {
+		List<DeliveryResult> batch = new ArrayList<>();
+		results.drainTo(batch);
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		List<DeliveryResult> sent = new ArrayList<>();
+		List<DeliveryResult> retry = new ArrayList<>();
+		List<DeliveryResult> failed = new ArrayList<>();
+		List<DeliveryResult> deferred = new ArrayList<>();
+		List<ReminderDeliveryLogService.Delivery> deliveries = new ArrayList<>(batch.size());
+		for (DeliveryResult result : batch) {
+			ReminderDeliveryLogService.Outcome outcome;
+			if (result.deferred()) {
+				deferred.add(result);
+				continue;
+			} else if (result.error() == null) {
+				sent.add(result);
+				outcome = ReminderDeliveryLogService.Outcome.SENT;
+			} else if (result.message().getAttempts() < maxAttempts) {
+				retry.add(result);
+				outcome = ReminderDeliveryLogService.Outcome.RETRY;
+			} else {
+				failed.add(result);
+				outcome = ReminderDeliveryLogService.Outcome.FAILED;
+			}
+			deliveries.add(new ReminderDeliveryLogService.Delivery(
+					result.message(), outcome, result.latencyMs(), result.error(), result.completedAt()));
+		}
+		List<DeliveryResult> sentReminders = sent.stream().filter(result -> result.message().getReminderId() != null).toList();
+		List<DeliveryResult> failedReminders = failed.stream().filter(result -> result.message().getReminderId() != null).toList();
+		List<DeliveryResult> sentDigests = sent.stream().filter(result -> NotificationOutboxService.isDigest(result.message())).toList();
+		List<DeliveryResult> failedDigests = failed.stream().filter(result -> NotificationOutboxService.isDigest(result.message())).toList();
+		List<ReminderScheduleChangedEvent> rescheduled = new ArrayList<>();
+		List<ReminderSentEvent> delivered = new ArrayList<>();
+
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.batchUpdate(MARK_SENT_SQL, sent, sent.size(), (ps, result) -> {
+					ps.setObject(1, result.completedAt());
+					ps.setLong(2, result.message().getId());
+				});
+				jdbcTemplate.batchUpdate(MARK_RETRY_SQL, retry, retry.size(), (ps, result) -> {
+					ps.setObject(1, result.completedAt().plus(backoffMillis(result.message().getAttempts()), ChronoUnit.MILLIS));
+					ps.setString(2, result.error());
+					ps.setLong(3, result.message().getId());
+				});
+				jdbcTemplate.batchUpdate(MARK_DEFERRED_SQL, deferred, deferred.size(), (ps, result) -> {
+					ps.setObject(1, result.completedAt().plus(result.deferMillis(), ChronoUnit.MILLIS));
+					ps.setString(2, result.error());
+					ps.setLong(3, result.message().getId());
+				});
+				jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failed, failed.size(), (ps, result) -> {
+					ps.setString(1, result.error());
+					ps.setLong(2, result.message().getId());
+				});
+				jdbcTemplate.batchUpdate(REMINDER_SENT_SQL, sentReminders, sentReminders.size(), (ps, result) -> {
+					ps.setObject(1, result.completedAt());
+					ps.setObject(2, result.message().getNextReminderAt());
+					ps.setLong(3, result.message().getReminderId());
+				});
+				jdbcTemplate.batchUpdate(REMINDER_FAILED_SQL, failedReminders, failedReminders.size(), (ps, result) -> {
+					ps.setObject(1, result.message().getNextReminderAt());
+					ps.setLong(2, result.message().getReminderId());
+				});
+				jdbcTemplate.batchUpdate(DIGEST_SENT_SQL, sentDigests, sentDigests.size(), (ps, result) -> {
+					ps.setObject(1, result.completedAt());
+					ps.setLong(2, result.message().getId());
+				});
+				for (DeliveryResult result : sentDigests) {
+					jdbcTemplate.queryForList(DIGEST_REMINDERS_SQL, Long.class, result.message().getId()).forEach(
+							reminderId -> delivered.add(new ReminderSentEvent(reminderId, result.completedAt())));
+				}
+				for (DeliveryResult result : failedDigests) {
+					rescheduled.addAll(jdbcTemplate.query(DIGEST_FAILED_SQL, (rs, rowNum) -> new ReminderScheduleChangedEvent(
+							rs.getLong(1), rs.getObject(2, LocalDateTime.class)), result.message().getId()));
+				}
+				// Delivered and given-up reminders change the status on their owners' dashboards
+				Set<Long> changed = new HashSet<>();
+				sentReminders.forEach(result -> changed.add(result.message().getReminderId()));
+				failedReminders.forEach(result -> changed.add(result.message().getReminderId()));
+				delivered.forEach(event -> changed.add(event.reminderId()));
+				rescheduled.forEach(event -> changed.add(event.reminderId()));
+				dashboardCache.onRemindersChanged(changed);
+			});
+		} catch (Exception e) {
+			// Retried with the next flush while the rows' leases last; older
+			// rows are claimed again and then find their delivery marker
+			LocalDateTime keepAfter = LocalDateTime.now(clock).minusSeconds(leaseSeconds);
+			List<DeliveryResult> kept = batch.stream().filter(result -> result.completedAt().isAfter(keepAfter)).toList();
+			results.addAll(kept);
+			log.error("Failed to record {} delivery results, keeping {} for the next flush: {}",
+					batch.size(), kept.size(), e.getMessage(), e);
+			return;
+		}
+
+		for (DeliveryResult result : failedReminders) {
+			rescheduled.add(new ReminderScheduleChangedEvent(
+					result.message().getReminderId(), result.message().getNextReminderAt()));
+		}
+		for (DeliveryResult result : sentReminders) {
+			delivered.add(new ReminderSentEvent(result.message().getReminderId(), result.completedAt()));
+		}
+		rescheduled.forEach(eventPublisher::publishEvent);
+		delivered.forEach(eventPublisher::publishEvent);
+		deliveryLog.append(deliveries);
+		log.debug("Recorded {} sent, {} retried, {} deferred and {} failed notifications",
+				sent.size(), retry.size(), deferred.size(), failed.size());
+	}
+
+	/**
+	 * Exponential backoff with "equal jitter": half the delay is fixed, the
+	 * other half random, so messages that failed together during an outage
+	 * do not all retry at the same instant.
+	 */
+	private long backoffMillis(int attempts) {
+		long delay = TimeUnit.SECONDS.toMillis(retryBaseSeconds << Math.min(attempts - 1, 10));
+		return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+	}
+
+	@Scheduled(cron = "${app.notifications.outbox.cleanup-cron:0 30 3 * * *}")
+	@LeaderOnly("outbox-cleanup")
+	public void deleteSentNotifications() {
+		Integer deleted = transactionTemplate.execute(status ->
+				outboxRepository.deleteSentBefore(LocalDateTime.now(clock).minusDays(retentionDays)));
+		log.info("Deleted {} sent notifications older than {} days", deleted, retentionDays);
+	}
+
+	private static void sleepQuietly(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Outcome of one send. A deferred result was never attempted because the
+	 * channel's breaker is open, and does not count as an attempt.
+	 */
+	private record DeliveryResult(NotificationOutbox message, String error, long latencyMs, LocalDateTime completedAt,
+			boolean deferred, long deferMillis) {
+
+		static DeliveryResult completed(NotificationOutbox message, String error, long latencyMs, LocalDateTime completedAt) {
+			return new DeliveryResult(message, error, latencyMs, completedAt, false, 0);
+		}
+
+		static DeliveryResult deferred(NotificationOutbox message, String error, LocalDateTime completedAt, long deferMillis) {
+			return new DeliveryResult(message, error, 0, completedAt, true, deferMillis);
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.meditrack.service;
+
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.NotificationOutbox;
+import com.meditrack.event.NotificationEnqueuedEvent;
+import com.meditrack.repository.NotificationOutboxRepository;
+import com.meditrack.util.ReminderDigest;
+import com.meditrack.util.ReminderNotification;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes notifications to the outbox inside the caller's transaction. The
+ * idempotency key makes enqueueing the same logical notification twice a
+ * no-op, e.g. when a reminder occurrence is processed again after a crash.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+	private static final String DIGEST_KEY_PREFIX = "digest:";
+
+	private final NotificationOutboxRepository outboxRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+
+	@Transactional
+	public boolean enqueue(NotificationOutbox.Priority priority, NotificationOutbox.Channel channel, String recipient,
+			String subject, String body, String idempotencyKey) {
+		return enqueue(priority, channel, recipient, subject, body, idempotencyKey, null, null);
+	}
+
+	/**
+	 * Queues one outbox row per channel of the reminder. Returns the number of
+	 * rows written; zero means there was nothing to send.
+	 */
+	@Transactional
+	public int enqueueReminder(ReminderNotification notification) {
+		MedicationReminder.ReminderType type = notification.reminderType();
+		String occurrenceKey = "reminder:" + notification.reminderId() + ":" + notification.occurrenceAt();
+		int queued = 0;
+
+		if (type == MedicationReminder.ReminderType.SMS || type == MedicationReminder.ReminderType.BOTH) {
+			String phoneNumber = notification.phoneNumber();
+			if (phoneNumber != null && !phoneNumber.isEmpty()) {
+				queued += enqueue(NotificationOutbox.Priority.ROUTINE, NotificationOutbox.Channel.SMS, formatPhone(phoneNumber),
+						null, notification.message(),
+						occurrenceKey + ":sms", notification.reminderId(), notification.nextReminderAt()) ? 1 : 0;
+			} else {
+				log.warn("User {} does not have a phone number configured. SMS not sent.", notification.email());
+			}
+		}
+
+		if (type == MedicationReminder.ReminderType.EMAIL || type == MedicationReminder.ReminderType.BOTH) {
+			queued += enqueue(NotificationOutbox.Priority.ROUTINE, NotificationOutbox.Channel.EMAIL, notification.email(),
+					notification.subject(),
+					notification.message(), occurrenceKey + ":email", notification.reminderId(),
+					notification.nextReminderAt()) ? 1 : 0;
+		}
+		return queued;
+	}
+
+	/**
+	 * Queues one outbox row per channel for a user's digest and links every
+	 * reminder it covers, so delivery is written back to all of them. Returns
+	 * the ids of the reminders that were queued on at least one channel.
+	 */
+	@Transactional
+	public Set<Long> enqueueDigest(ReminderDigest digest) {
+		Set<Long> queued = new HashSet<>();
+		// The first reminder identifies the digest, so a retry of the same
+		// window is deduplicated while a later digest in that window is not
+		ReminderNotification lead = digest.reminders().get(0);
+		String digestKey = DIGEST_KEY_PREFIX + digest.userId() + ":" + lead.reminderId() + ":" + lead.occurrenceAt();
+
+		for (NotificationOutbox.Channel channel : NotificationOutbox.Channel.values()) {
+			List<ReminderNotification> entries = digest.remindersFor(channel);
+			if (entries.isEmpty()) {
+				continue;
+			}
+			String recipient = channel == NotificationOutbox.Channel.SMS ? formatPhone(digest.phoneNumber()) : digest.email();
+			if (recipient == null || recipient.isEmpty()) {
+				log.warn("No recipient for {} digest of user {}. Not queued.", channel, digest.userId());
+				continue;
+			}
+			List<Long> inserted = outboxRepository.enqueueDigest(digestKey + ":" + channel.name().toLowerCase(),
+					channel.name(), recipient, digest.subject(entries), digest.message(entries), LocalDateTime.now(clock));
+			if (inserted.isEmpty()) {
+				log.debug("Digest {} already queued on {}", digestKey, channel);
+				continue;
+			}
+			for (ReminderNotification entry : entries) {
+				outboxRepository.addDigestReminder(inserted.get(0), entry.reminderId(), entry.nextReminderAt());
+				queued.add(entry.reminderId());
+			}
+			eventPublisher.publishEvent(new NotificationEnqueuedEvent());
+		}
+		return queued;
+	}
+
+	private boolean enqueue(NotificationOutbox.Priority priority, NotificationOutbox.Channel channel, String recipient,
+			String subject, String body, String idempotencyKey, Long reminderId, LocalDateTime nextReminderAt) {
+		if (recipient == null || recipient.isEmpty()) {
+			log.warn("No recipient for {} notification {}. Not queued.", channel, idempotencyKey);
+			return false;
+		}
+		int inserted = outboxRepository.enqueue(idempotencyKey, channel.name(), priority.name(), recipient, subject, body,
+				reminderId, nextReminderAt, LocalDateTime.now(clock));
+		if (inserted == 0) {
+			log.debug("Notification {} already queued", idempotencyKey);
+			return false;
+		}
+		eventPublisher.publishEvent(new NotificationEnqueuedEvent());
+		return true;
+	}
+
+	public static boolean isDigest(NotificationOutbox message) {
+		return message.getKind() == NotificationOutbox.Kind.DIGEST;
+	}
+
+	// Ensure phone number has country code prefix
+	static String formatPhone(String phoneNumber) {
+		if (phoneNumber == null || phoneNumber.isEmpty()) {
+			return phoneNumber;
+		}
+		return phoneNumber.startsWith("+") ? phoneNumber : "+" + phoneNumber;
+	}
+}
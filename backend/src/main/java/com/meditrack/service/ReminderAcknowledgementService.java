@@ -0,0 +1,414 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.event.UserDataChangedEvent;
+import com.meditrack.exception.BadRequestException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dose acknowledgements and snoozes.
+ *
+ * The endpoints only append an entry to the Redis stream
+ * {@code reminder-acks}; nothing touches Postgres on the request path. A
+ * writer thread on every node reads the stream through the consumer group
+ * {@code reminder-ack-writers} and applies each batch with one
+ * {@code UPDATE ... FROM unnest(...)} per action, in a single transaction.
+ * Ownership is checked in that statement, so entries for someone else's
+ * reminder are dropped. Entries are acknowledged and deleted from the stream
+ * only after the transaction commits; entries left pending by a node that
+ * died are claimed by another node after {@code claim-idle-ms}.
+ *
+ * Taking a dose re-arms the reminder for its next occurrence; snoozing
+ * re-arms it for the snooze time. A dose not acknowledged within
+ * {@code grace-minutes} is recorded as MISSED in {@code reminder_deliveries}
+ * and its reminder re-armed for the next occurrence, so a forgotten
+ * acknowledgement does not end the schedule.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderAcknowledgementService {
+
+	private static final String STREAM = "reminder-acks";
+	private static final String GROUP = "reminder-ack-writers";
+
+	private static final String TAKEN = "TAKEN";
+	private static final String SNOOZE = "SNOOZE";
+
+	// A reminder left MISSED by older versions is only revived while its next occurrence is still ahead
+	private static final String OWNED_AND_OPEN = "AND m.id = r.medication_id AND fm.id = m.family_member_id " +
+			"AND u.id = fm.user_id AND u.email = a.email " +
+			"AND (r.status = 'SENT' OR (r.status = 'MISSED' AND r.next_reminder_at > a.at)) ";
+
+	private static final String TAKEN_SQL = "UPDATE medication_reminders r " +
+			"SET status = 'PENDING', last_acknowledged_at = a.at, updated_at = CURRENT_TIMESTAMP " +
+			"FROM unnest(?, ?, ?) AS a(id, email, at), medications m, family_members fm, users u " +
+			"WHERE r.id = a.id " + OWNED_AND_OPEN +
+			"RETURNING r.id, r.next_reminder_at, u.id";
+
+	private static final String SNOOZE_SQL = "UPDATE medication_reminders r " +
+			"SET status = 'PENDING', next_reminder_at = a.until, updated_at = CURRENT_TIMESTAMP " +
+			"FROM unnest(?, ?, ?, ?) AS a(id, email, at, until), medications m, family_members fm, users u " +
+			"WHERE r.id = a.id " + OWNED_AND_OPEN +
+			"RETURNING r.id, r.next_reminder_at, u.id";
+
+	// The next occurrence was computed when the dose was sent
+	private static final String REARM_SQL = "UPDATE medication_reminders SET status = 'PENDING', updated_at = CURRENT_TIMESTAMP " +
+			"WHERE id IN (" +
+			"  SELECT id FROM medication_reminders " +
+			"  WHERE status = 'SENT' AND last_sent_at < ? " +
+			"  LIMIT ? " +
+			"  FOR UPDATE SKIP LOCKED) " +
+			"RETURNING id, next_reminder_at, last_sent_at";
+
+	private final RedisTemplate<String, Object> redisTemplate;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ReminderDeliveryLogService deliveryLogService;
+	private final DashboardCacheService dashboardCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final LeaderElectionService leaderElection;
+	private final Clock clock;
+
+	// Gates the stream writer only; sent reminders recur through the grace re-arm either way
+	@Value("${app.reminders.acknowledgements.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.acknowledgements.batch-size:500}")
+	private int batchSize;
+
+	@Value("${app.reminders.acknowledgements.block-ms:2000}")
+	private long blockMs;
+
+	@Value("${app.reminders.acknowledgements.claim-idle-ms:60000}")
+	private long claimIdleMs;
+
+	@Value("${app.reminders.acknowledgements.grace-minutes:60}")
+	private long graceMinutes;
+
+	@Value("${app.reminders.acknowledgements.max-snooze-minutes:120}")
+	private long maxSnoozeMinutes;
+
+	@Value("${app.reminders.acknowledgements.missed-chunk-size:1000}")
+	private int missedChunkSize;
+
+	@Value("${app.reminders.claim.node-id:}")
+	private String nodeId;
+
+	private Thread writer;
+	private volatile boolean running;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		if (nodeId == null || nodeId.isEmpty()) {
+			nodeId = UUID.randomUUID().toString();
+		}
+		running = true;
+		writer = new Thread(this::writeLoop, "reminder-ack-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (writer != null) {
+			writer.interrupt();
+		}
+	}
+
+	public void acknowledge(Long reminderId) {
+		append(reminderId, TAKEN, LocalDateTime.now(clock), null);
+	}
+
+	public LocalDateTime snooze(Long reminderId, long minutes) {
+		if (minutes < 1 || minutes > maxSnoozeMinutes) {
+			throw new BadRequestException("Snooze must be between 1 and " + maxSnoozeMinutes + " minutes");
+		}
+		LocalDateTime now = LocalDateTime.now(clock);
+		LocalDateTime until = now.plusMinutes(minutes);
+		append(reminderId, SNOOZE, now, until);
+		return until;
+	}
+
+	private void append(Long reminderId, String action, LocalDateTime at, LocalDateTime until) {
+		Map<String, String> entry = new LinkedHashMap<>();
+		entry.put("reminderId", String.valueOf(reminderId));
+		entry.put("email", SecurityContextHolder.getContext().getAuthentication().getName());
+		entry.put("action", action);
+		entry.put("at", at.toString());
+		if (until != null) {
+			entry.put("until", until.toString());
+		}
+		redisTemplate.opsForStream().add(STREAM, entry);
+	}
+
+	/**
+	 * Records sent doses whose grace window has passed as missed and re-arms
+	 * their reminders. Runs with acknowledgements disabled as well, since a
+	 * sent reminder only becomes PENDING again through an acknowledgement or
+	 * this re-arm.
+	 */
+	@Scheduled(fixedDelayString = "${app.reminders.acknowledgements.missed-interval-ms:60000}")
+	@LeaderOnly("reminder-missed")
+	public void markMissed() {
+		LocalDateTime cutoff = LocalDateTime.now(clock).minusMinutes(graceMinutes);
+		long missed = 0;
+		int updated;
+		do {
+			updated = rearmUnacknowledged(cutoff);
+			missed += updated;
+		} while (updated == missedChunkSize && leaderElection.stillLeading());
+		if (missed > 0) {
+			log.info("Recorded {} unacknowledged doses sent before {} as missed", missed, cutoff);
+		}
+	}
+
+	/**
+	 * Re-arms up to {@code missed-chunk-size} reminders sent before
+	 * {@code cutoff} and never acknowledged, recording each dose as missed.
+	 * Returns the number re-armed.
+	 */
+	public int rearmUnacknowledged(LocalDateTime cutoff) {
+		List<Rearmed> rearmed = transactionTemplate.execute(status -> {
+			List<Rearmed> rows = jdbcTemplate.query(REARM_SQL, (rs, rowNum) -> new Rearmed(rs.getLong(1),
+					rs.getObject(2, LocalDateTime.class), rs.getObject(3, LocalDateTime.class)), cutoff, missedChunkSize);
+			rows.forEach(row -> eventPublisher.publishEvent(new ReminderScheduleChangedEvent(row.id(), row.nextAt())));
+			dashboardCache.onRemindersChanged(rows.stream().map(Rearmed::id).toList());
+			return rows;
+		});
+		if (rearmed == null || rearmed.isEmpty()) {
+			return 0;
+		}
+		deliveryLogService.appendMissed(rearmed.stream()
+				.map(row -> new ReminderDeliveryLogService.MissedDose(row.id(), "Not acknowledged, sent at " + row.sentAt()))
+				.toList(), LocalDateTime.now(clock));
+		return rearmed.size();
+	}
+
+	private void writeLoop() {
+		StreamOperations<String, Object, Object> stream = redisTemplate.opsForStream();
+		Consumer consumer = Consumer.from(GROUP, nodeId);
+		boolean groupReady = false;
+		// Start with entries this node read but did not acknowledge before a restart
+		boolean recovering = true;
+		long lastClaimCheck = System.currentTimeMillis();
+		while (running) {
+			try {
+				if (!groupReady) {
+					createGroup();
+					groupReady = true;
+				}
+				List<MapRecord<String, Object, Object>> records = read(stream, consumer,
+						recovering ? ReadOffset.from("0") : ReadOffset.lastConsumed());
+				if (recovering && (records == null || records.isEmpty())) {
+					recovering = false;
+					continue;
+				}
+				if (records != null && !records.isEmpty()) {
+					apply(records);
+				}
+				if (System.currentTimeMillis() - lastClaimCheck >= claimIdleMs) {
+					claimAbandoned(stream);
+					lastClaimCheck = System.currentTimeMillis();
+				}
+			} catch (Exception e) {
+				if (!running) {
+					return;
+				}
+				log.warn("Acknowledgement writer failed: {}", e.getMessage());
+				groupReady = false;
+				sleepQuietly(blockMs);
+			}
+		}
+	}
+
+	// Reading a single stream still goes through the generic varargs overload
+	@SuppressWarnings("unchecked")
+	private List<MapRecord<String, Object, Object>> read(StreamOperations<String, Object, Object> stream,
+			Consumer consumer, ReadOffset offset) {
+		return stream.read(consumer, StreamReadOptions.empty().count(batchSize).block(Duration.ofMillis(blockMs)),
+				StreamOffset.create(STREAM, offset));
+	}
+
+	private void createGroup() {
+		try {
+			redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+					.xGroupCreate(STREAM.getBytes(StandardCharsets.UTF_8), GROUP, ReadOffset.from("0"), true));
+		} catch (Exception e) {
+			// BUSYGROUP: another node created it
+			log.debug("Acknowledgement consumer group not created: {}", e.getMessage());
+		}
+	}
+
+	private void claimAbandoned(StreamOperations<String, Object, Object> stream) {
+		PendingMessages pending = stream.pending(STREAM, GROUP, Range.unbounded(), batchSize);
+		Duration minIdle = Duration.ofMillis(claimIdleMs);
+		List<RecordId> idle = new ArrayList<>();
+		for (PendingMessage message : pending) {
+			if (!message.getConsumerName().equals(nodeId) && message.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0) {
+				idle.add(message.getId());
+			}
+		}
+		if (idle.isEmpty()) {
+			return;
+		}
+		List<MapRecord<String, Object, Object>> claimed = stream.claim(STREAM, GROUP, nodeId, minIdle,
+				idle.toArray(new RecordId[0]));
+		if (!claimed.isEmpty()) {
+			log.info("Claimed {} abandoned acknowledgements", claimed.size());
+			apply(claimed);
+		}
+	}
+
+	private void apply(List<MapRecord<String, Object, Object>> records) {
+		// Last entry per reminder wins, so one batch never updates a row twice
+		Map<Long, Entry> latest = new LinkedHashMap<>();
+		for (MapRecord<String, Object, Object> record : records) {
+			Entry entry = Entry.parse(record.getValue());
+			if (entry == null) {
+				log.warn("Dropping malformed acknowledgement {}", record.getId());
+				continue;
+			}
+			latest.remove(entry.reminderId());
+			latest.put(entry.reminderId(), entry);
+		}
+		List<Entry> taken = latest.values().stream().filter(entry -> TAKEN.equals(entry.action())).toList();
+		List<Entry> snoozed = latest.values().stream().filter(entry -> SNOOZE.equals(entry.action())).toList();
+		write(taken, snoozed);
+
+		RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+		StreamOperations<String, Object, Object> stream = redisTemplate.opsForStream();
+		stream.acknowledge(STREAM, GROUP, ids);
+		stream.delete(STREAM, ids);
+	}
+
+	/**
+	 * Applies taken doses directly, without going through the stream, e.g.
+	 * for the simulation. Returns the number of reminders re-armed.
+	 */
+	public int applyTaken(Collection<TakenDose> doses) {
+		return write(doses.stream()
+				.map(dose -> new Entry(dose.reminderId(), dose.email(), TAKEN, dose.at(), null))
+				.toList(), List.of());
+	}
+
+	private int write(List<Entry> taken, List<Entry> snoozed) {
+		Integer written = transactionTemplate.execute(status -> {
+			List<Acknowledged> rearmed = new ArrayList<>();
+			if (!taken.isEmpty()) {
+				rearmed.addAll(update(TAKEN_SQL, taken, false));
+			}
+			if (!snoozed.isEmpty()) {
+				rearmed.addAll(update(SNOOZE_SQL, snoozed, true));
+			}
+			rearmed.forEach(row -> eventPublisher.publishEvent(row.changed()));
+			// Once per user, however many of their doses the batch acknowledged
+			rearmed.stream().map(Acknowledged::userId).distinct()
+					.forEach(userId -> eventPublisher.publishEvent(new UserDataChangedEvent(userId)));
+			int entries = taken.size() + snoozed.size();
+			if (rearmed.size() < entries) {
+				log.debug("Ignored {} acknowledgements for reminders that are not awaiting one",
+						entries - rearmed.size());
+			}
+			return rearmed.size();
+		});
+		return written != null ? written : 0;
+	}
+
+	private List<Acknowledged> update(String sql, Collection<Entry> entries, boolean withUntil) {
+		return jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql);
+			statement.setArray(1, connection.createArrayOf("bigint",
+					entries.stream().map(Entry::reminderId).toArray()));
+			statement.setArray(2, connection.createArrayOf("varchar",
+					entries.stream().map(Entry::email).toArray()));
+			statement.setArray(3, connection.createArrayOf("timestamp",
+					entries.stream().map(entry -> Timestamp.valueOf(entry.at())).toArray()));
+			if (withUntil) {
+				statement.setArray(4, connection.createArrayOf("timestamp",
+						entries.stream().map(entry -> Timestamp.valueOf(entry.until())).toArray()));
+			}
+			return statement;
+		}, (rs, rowNum) -> new Acknowledged(
+				new ReminderScheduleChangedEvent(rs.getLong(1), rs.getObject(2, LocalDateTime.class)), rs.getLong(3)));
+	}
+
+	private static void sleepQuietly(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public record TakenDose(Long reminderId, String email, LocalDateTime at) {
+	}
+
+	private record Rearmed(long id, LocalDateTime nextAt, LocalDateTime sentAt) {
+	}
+
+	private record Acknowledged(ReminderScheduleChangedEvent changed, long userId) {
+	}
+
+	private record Entry(Long reminderId, String email, String action, LocalDateTime at, LocalDateTime until) {
+
+		static Entry parse(Map<Object, Object> values) {
+			try {
+				String action = String.valueOf(values.get("action"));
+				Object until = values.get("until");
+				if (SNOOZE.equals(action) && until == null) {
+					return null;
+				}
+				return new Entry(
+						Long.valueOf(String.valueOf(values.get("reminderId"))),
+						String.valueOf(values.get("email")),
+						action,
+						LocalDateTime.parse(String.valueOf(values.get("at"))),
+						until != null ? LocalDateTime.parse(String.valueOf(until)) : null);
+			} catch (RuntimeException e) {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,296 @@
+package com.meditrack.service;
+
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.repository.MedicationReminderRepository;
+import com.meditrack.util.ZonedSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works off the reminders that piled up while the service was down.
+ *
+ * Doses overdue by more than {@code stale-after-minutes} are no longer
+ * useful: their reminders move on to the next occurrence and stay PENDING,
+ * and each skipped dose is recorded as MISSED in {@code reminder_deliveries}
+ * rather than in the reminder's status, which would end the schedule. If
+ * what remains is above
+ * {@code backlog-threshold}, the backlog is processed in batches whose size
+ * and delivery concurrency follow the provider latency seen by
+ * {@link NotificationDispatcher}: concurrency is raised one sender at a time
+ * while latency stays under target and halved when it goes over, and each
+ * batch holds roughly {@code batch-seconds} of deliveries at the current
+ * throughput. A new batch is only queued once the outbox has drained below
+ * {@code max-unsent}, so Twilio and SMTP never see the whole backlog at once.
+ * If it does not drain within {@code drain-timeout-seconds}, or this node's
+ * dispatcher is not running, the run is paused and what is left is sent by
+ * regular reminder processing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderCatchUpService {
+
+	private static final String STALE_SQL = "SELECT r.id, r.days_mask, r.reminder_time, r.next_reminder_at, u.time_zone " +
+			"FROM medication_reminders r " +
+			"JOIN medications m ON m.id = r.medication_id " +
+			"JOIN family_members fm ON fm.id = m.family_member_id " +
+			"JOIN users u ON u.id = fm.user_id " +
+			"WHERE r.status = 'PENDING' AND r.next_reminder_at < ? " +
+			"ORDER BY r.next_reminder_at, r.id LIMIT ?";
+
+	// Guarded by the old fire time, so a reminder changed in the meantime is left alone
+	private static final String SKIP_SQL = "UPDATE medication_reminders " +
+			"SET next_reminder_at = ?, claimed_by = NULL, claimed_until = NULL, updated_at = CURRENT_TIMESTAMP " +
+			"WHERE id = ? AND status = 'PENDING' AND next_reminder_at = ?";
+
+	private static final RowMapper<StaleReminder> STALE_MAPPER = (rs, rowNum) -> new StaleReminder(rs.getLong(1),
+			rs.getInt(2), rs.getObject(3, LocalTime.class), rs.getObject(4, LocalDateTime.class), rs.getString(5));
+
+	private final MedicationReminderRepository reminderRepository;
+	private final ReminderService reminderService;
+	private final ReminderClaimService claimService;
+	private final NotificationDispatcher dispatcher;
+	private final TransactionTemplate transactionTemplate;
+	private final JdbcTemplate jdbcTemplate;
+	private final ReminderOccurrenceService occurrenceService;
+	private final ReminderDeliveryLogService deliveryLogService;
+	private final DashboardCacheService dashboardCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+
+	@Value("${app.reminders.catch-up.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.catch-up.stale-after-minutes:120}")
+	private long staleAfterMinutes;
+
+	@Value("${app.reminders.catch-up.backlog-threshold:200}")
+	private long backlogThreshold;
+
+	@Value("${app.reminders.catch-up.min-batch:20}")
+	private int minBatch;
+
+	@Value("${app.reminders.catch-up.max-batch:500}")
+	private int maxBatch;
+
+	@Value("${app.reminders.catch-up.batch-seconds:10}")
+	private long batchSeconds;
+
+	@Value("${app.reminders.catch-up.target-latency-ms:1500}")
+	private long targetLatencyMs;
+
+	@Value("${app.reminders.catch-up.max-unsent:1000}")
+	private long maxUnsent;
+
+	@Value("${app.reminders.catch-up.drain-poll-ms:500}")
+	private long drainPollMs;
+
+	@Value("${app.reminders.catch-up.drain-timeout-seconds:300}")
+	private long drainTimeoutSeconds;
+
+	private volatile CatchUpProgress progress = CatchUpProgress.idle();
+
+	public CatchUpProgress getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Moves stale reminders on to their next occurrence and, if the remaining
+	 * backlog is large enough, processes it before returning. Returns true if
+	 * a catch-up ran.
+	 */
+	public boolean catchUp(LocalDateTime now) throws InterruptedException {
+		if (!enabled) {
+			return false;
+		}
+
+		LocalDateTime cutoff = now.minusMinutes(staleAfterMinutes);
+		int markedMissed = skipStale(now, cutoff);
+		if (markedMissed > 0) {
+			log.warn("Skipped {} doses due before {}; their reminders moved to the next occurrence", markedMissed, cutoff);
+		}
+
+		long backlog = reminderRepository.countDue(now);
+		if (backlog < backlogThreshold) {
+			return false;
+		}
+
+		log.warn("Catching up on {} overdue reminders", backlog);
+		LocalDateTime startedAt = LocalDateTime.now(clock);
+		int batchSize = minBatch;
+		long processed = 0;
+		ReminderService.DueCursor cursor = ReminderService.DueCursor.START;
+		CatchUpProgress.State state = CatchUpProgress.State.FAILED;
+		progress = new CatchUpProgress(CatchUpProgress.State.RUNNING, startedAt, null, backlog, 0, markedMissed,
+				batchSize, dispatcher.concurrency(), dispatcher.providerLatencyMs());
+		try {
+			while (true) {
+				if (!awaitOutboxDrained()) {
+					state = CatchUpProgress.State.PAUSED;
+					log.warn("Catch-up paused after {} reminders: the notification outbox is not draining", processed);
+					return true;
+				}
+				batchSize = adapt(batchSize);
+
+				int count;
+				if (claimService.isEnabled()) {
+					count = reminderService.processClaimedBatch(now, batchSize);
+				} else {
+					cursor = reminderService.processDueChunk(now, cursor, batchSize);
+					count = cursor.size();
+				}
+				processed += count;
+				progress = new CatchUpProgress(CatchUpProgress.State.RUNNING, startedAt, null, backlog, processed,
+						markedMissed, batchSize, dispatcher.concurrency(), dispatcher.providerLatencyMs());
+				if (count < batchSize) {
+					break;
+				}
+			}
+			state = CatchUpProgress.State.COMPLETED;
+		} finally {
+			dispatcher.setConcurrency(dispatcher.senders());
+			progress = new CatchUpProgress(state, startedAt, LocalDateTime.now(clock), backlog, processed, markedMissed,
+					batchSize, dispatcher.concurrency(), dispatcher.providerLatencyMs());
+		}
+		log.info("Catch-up processed {} reminders in {}", processed,
+				Duration.between(startedAt, LocalDateTime.now(clock)));
+		return true;
+	}
+
+	/**
+	 * Advances every PENDING reminder due before {@code cutoff} to its first
+	 * occurrence after {@code now}, in batches of {@code max-batch}, and
+	 * records the skipped doses. Returns the number of doses skipped.
+	 */
+	int skipStale(LocalDateTime now, LocalDateTime cutoff) {
+		int skipped = 0;
+		List<StaleReminder> rows;
+		do {
+			rows = jdbcTemplate.query(STALE_SQL, STALE_MAPPER, cutoff, maxBatch);
+			List<StaleReminder> batch = rows;
+			List<StaleReminder> moved = transactionTemplate.execute(status -> advance(batch, now));
+			if (moved == null || moved.isEmpty()) {
+				// Every row changed under us; the next poll picks up what is left
+				break;
+			}
+			skipped += moved.size();
+			occurrenceService.rematerialize(reminderRepository.findWithMedicationByIdIn(
+					moved.stream().map(StaleReminder::id).toList()));
+			deliveryLogService.appendMissed(moved.stream()
+					.map(row -> new ReminderDeliveryLogService.MissedDose(row.id(), "Not sent, was due at " + row.nextAt()))
+					.toList(), now);
+		} while (rows.size() == maxBatch);
+		return skipped;
+	}
+
+	private List<StaleReminder> advance(List<StaleReminder> rows, LocalDateTime now) {
+		List<Skip> skips = new ArrayList<>(rows.size());
+		for (StaleReminder row : rows) {
+			ZoneId zone = ZonedSchedule.parse(row.timeZone());
+			skips.add(new Skip(row, ZonedSchedule.nextOccurrence(row.daysMask(), row.time(), now,
+					zone != null ? zone : ZoneOffset.UTC)));
+		}
+		int[][] updated = jdbcTemplate.batchUpdate(SKIP_SQL, skips, skips.size(), (ps, skip) -> {
+			ps.setObject(1, skip.nextAt());
+			ps.setLong(2, skip.row().id());
+			ps.setObject(3, skip.row().nextAt());
+		});
+		List<StaleReminder> moved = new ArrayList<>();
+		int i = 0;
+		for (int[] batch : updated) {
+			for (int count : batch) {
+				Skip skip = skips.get(i++);
+				if (count > 0) {
+					moved.add(skip.row());
+					eventPublisher.publishEvent(new ReminderScheduleChangedEvent(skip.row().id(), skip.nextAt()));
+				}
+			}
+		}
+		dashboardCache.onRemindersChanged(moved.stream().map(StaleReminder::id).toList());
+		return moved;
+	}
+
+	private int adapt(int batchSize) {
+		double latency = dispatcher.providerLatencyMs();
+		if (latency < 0) {
+			// Nothing delivered yet: start small
+			return batchSize;
+		}
+		int concurrency = dispatcher.concurrency();
+		if (latency > targetLatencyMs) {
+			concurrency = concurrency / 2;
+		} else {
+			concurrency = concurrency + 1;
+		}
+		dispatcher.setConcurrency(concurrency);
+
+		double perSecond = dispatcher.concurrency() * 1000.0 / Math.max(latency, 1.0);
+		long next = Math.round(perSecond * batchSeconds);
+		return (int) Math.max(minBatch, Math.min(maxBatch, next));
+	}
+
+	/**
+	 * Waits until the outbox holds fewer than {@code max-unsent} rows. Returns
+	 * false if that does not happen within {@code drain-timeout-seconds}, or
+	 * at once if this node's dispatcher is not running to drain it.
+	 */
+	boolean awaitOutboxDrained() throws InterruptedException {
+		long deadline = clock.millis() + drainTimeoutSeconds * 1000;
+		while (dispatcher.unsent() >= maxUnsent) {
+			if (!dispatcher.isRunning() || clock.millis() >= deadline) {
+				return false;
+			}
+			Thread.sleep(drainPollMs);
+		}
+		return true;
+	}
+
+	private record StaleReminder(long id, int daysMask, LocalTime time, LocalDateTime nextAt, String timeZone) {
+	}
+
+	private record Skip(StaleReminder row, LocalDateTime nextAt) {
+	}
+
+	public record CatchUpProgress(
+			State state,
+			LocalDateTime startedAt,
+			LocalDateTime finishedAt,
+			long backlog,
+			long processed,
+			int markedMissed,
+			int batchSize,
+			int concurrency,
+			double providerLatencyMs) {
+
+		static CatchUpProgress idle() {
+			return new CatchUpProgress(State.IDLE, null, null, 0, 0, 0, 0, 0, -1);
+		}
+
+		public boolean active() {
+			return state == State.RUNNING;
+		}
+
+		public long remaining() {
+			return Math.max(0, backlog - processed);
+		}
+
+		public enum State {
+			IDLE, RUNNING, COMPLETED, PAUSED, FAILED
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.meditrack.service;
+
+import com.meditrack.repository.MedicationReminderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hands out leases on due reminders so that several replicas can process the
+ * same table without sending a reminder twice. Rows are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}; a lease that is not released before it
+ * expires (e.g. the node died) becomes claimable again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderClaimService {
+
+	private final MedicationReminderRepository reminderRepository;
+
+	@Value("${app.reminders.claim.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.claim.batch-size:100}")
+	private int batchSize;
+
+	@Value("${app.reminders.claim.lease-seconds:300}")
+	private long leaseSeconds;
+
+	@Value("${app.reminders.claim.node-id:}")
+	private String nodeId;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public String getOwner() {
+		if (nodeId == null || nodeId.isEmpty()) {
+			nodeId = UUID.randomUUID().toString();
+			log.info("Reminder claim node id not configured, using {}", nodeId);
+		}
+		return nodeId;
+	}
+
+	/**
+	 * Claims up to one batch of due reminders and commits immediately so other
+	 * nodes skip them while this node sends.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public List<Long> claimDueBatch(LocalDateTime now, int limit) {
+		return reminderRepository.claimDueBatch(getOwner(), now, now.plusSeconds(leaseSeconds), limit);
+	}
+
+	/**
+	 * Claims a single reminder inside the caller's transaction. Returns false
+	 * when another node holds it or it is no longer pending.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean claim(Long reminderId, LocalDateTime now) {
+		return reminderRepository.claim(reminderId, getOwner(), now, now.plusSeconds(leaseSeconds)) > 0;
+	}
+}
@@ -0,0 +1,216 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.entity.NotificationOutbox;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Writes the append-only {@code reminder_deliveries} history and manages its
+ * monthly partitions.
+ *
+ * {@link NotificationDispatcher} hands over each flushed batch of delivery
+ * results; they are inserted in JDBC batches in a transaction of their own,
+ * so a failure here never holds up the delivery write-back. Partitions are
+ * created {@code premake-months} ahead, and partitions whose month ended more
+ * than {@code retention-months} ago are dropped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderDeliveryLogService {
+
+	private static final String TABLE = "reminder_deliveries";
+
+	private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+	private static final String INSERT_SQL = "INSERT INTO reminder_deliveries " +
+			"(reminder_id, outbox_id, channel, outcome, attempt, latency_ms, error, delivered_at) " +
+			"VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// One row per reminder carried by a digest
+	private static final String INSERT_DIGEST_SQL = "INSERT INTO reminder_deliveries " +
+			"(reminder_id, outbox_id, channel, outcome, attempt, latency_ms, error, delivered_at) " +
+			"SELECT d.reminder_id, d.outbox_id, ?, ?, ?, ?, ?, ? " +
+			"FROM notification_outbox_reminders d WHERE d.outbox_id = ?";
+
+	// A missed dose; no message or channel of its own
+	private static final String INSERT_MISSED_SQL = "INSERT INTO reminder_deliveries " +
+			"(reminder_id, outbox_id, channel, outcome, attempt, latency_ms, error, delivered_at) " +
+			"VALUES (?, NULL, NULL, 'MISSED', 0, 0, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Clock clock;
+
+	@Value("${app.reminders.deliveries.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.deliveries.premake-months:2}")
+	private int premakeMonths;
+
+	@Value("${app.reminders.deliveries.retention-months:12}")
+	private int retentionMonths;
+
+	public enum Outcome {
+		SENT, RETRY, FAILED, MISSED
+	}
+
+	public record Delivery(
+			NotificationOutbox message,
+			Outcome outcome,
+			long latencyMs,
+			String error,
+			LocalDateTime deliveredAt) {
+	}
+
+	/**
+	 * Appends the reminder deliveries in {@code deliveries}; OTPs and other
+	 * messages without a reminder are ignored.
+	 */
+	public void append(List<Delivery> deliveries) {
+		if (!enabled) {
+			return;
+		}
+		List<Delivery> single = deliveries.stream()
+				.filter(delivery -> delivery.message().getReminderId() != null).toList();
+		List<Delivery> digests = deliveries.stream()
+				.filter(delivery -> NotificationOutboxService.isDigest(delivery.message())).toList();
+		if (single.isEmpty() && digests.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				jdbcTemplate.batchUpdate(INSERT_SQL, single, single.size(), (ps, delivery) -> {
+					ps.setLong(1, delivery.message().getReminderId());
+					ps.setLong(2, delivery.message().getId());
+					ps.setString(3, delivery.message().getChannel().name());
+					ps.setString(4, delivery.outcome().name());
+					ps.setInt(5, delivery.message().getAttempts());
+					ps.setInt(6, (int) Math.min(Integer.MAX_VALUE, delivery.latencyMs()));
+					ps.setString(7, truncate(delivery.error()));
+					ps.setObject(8, delivery.deliveredAt());
+				});
+				jdbcTemplate.batchUpdate(INSERT_DIGEST_SQL, digests, digests.size(), (ps, delivery) -> {
+					ps.setString(1, delivery.message().getChannel().name());
+					ps.setString(2, delivery.outcome().name());
+					ps.setInt(3, delivery.message().getAttempts());
+					ps.setInt(4, (int) Math.min(Integer.MAX_VALUE, delivery.latencyMs()));
+					ps.setString(5, truncate(delivery.error()));
+					ps.setObject(6, delivery.deliveredAt());
+					ps.setLong(7, delivery.message().getId());
+				});
+			});
+		} catch (Exception e) {
+			log.error("Failed to record {} reminder deliveries: {}", single.size() + digests.size(), e.getMessage());
+		}
+	}
+
+	public record MissedDose(long reminderId, String reason) {
+	}
+
+	/**
+	 * Records doses that were missed: skipped without a delivery attempt,
+	 * such as those that fell too far behind during an outage, or sent and
+	 * never acknowledged.
+	 */
+	public void appendMissed(List<MissedDose> doses, LocalDateTime recordedAt) {
+		if (!enabled || doses.isEmpty()) {
+			return;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status ->
+					jdbcTemplate.batchUpdate(INSERT_MISSED_SQL, doses, doses.size(), (ps, dose) -> {
+						ps.setLong(1, dose.reminderId());
+						ps.setString(2, truncate(dose.reason()));
+						ps.setObject(3, recordedAt);
+					}));
+		} catch (Exception e) {
+			log.error("Failed to record {} missed doses: {}", doses.size(), e.getMessage());
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onStartup() {
+		if (enabled) {
+			createPartitions();
+		}
+	}
+
+	/**
+	 * Creates the partitions for this month and the next
+	 * {@code premake-months}. Safe to run on every node.
+	 */
+	@Scheduled(cron = "${app.reminders.deliveries.partition-cron:0 0 1 * * *}")
+	public void createPartitions() {
+		YearMonth month = YearMonth.now(clock);
+		for (int i = 0; i <= premakeMonths; i++) {
+			YearMonth target = month.plusMonths(i);
+			try {
+				jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(target) +
+						" PARTITION OF " + TABLE + " FOR VALUES FROM ('" + target.atDay(1) +
+						"') TO ('" + target.plusMonths(1).atDay(1) + "')");
+			} catch (Exception e) {
+				// Another node may have created it at the same moment
+				log.warn("Could not create delivery partition for {}: {}", target, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Drops partitions whose month ended more than {@code retention-months}
+	 * ago. Dropping a partition is a catalog change, not a mass delete, so it
+	 * leaves no dead tuples behind.
+	 */
+	@Scheduled(cron = "${app.reminders.deliveries.retention-cron:0 45 3 * * *}")
+	@LeaderOnly("reminder-deliveries-retention")
+	public void dropExpiredPartitions() {
+		if (!enabled) {
+			return;
+		}
+		LocalDate cutoff = YearMonth.now(clock).minusMonths(retentionMonths).atDay(1);
+		List<String> partitions = jdbcTemplate.queryForList(
+				"SELECT c.relname FROM pg_inherits i " +
+				"JOIN pg_class c ON c.oid = i.inhrelid " +
+				"JOIN pg_class p ON p.oid = i.inhparent " +
+				"WHERE p.relname = ?", String.class, TABLE);
+		for (String partition : partitions) {
+			YearMonth month = monthOf(partition);
+			if (month == null || month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+				continue;
+			}
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+			log.info("Dropped reminder delivery partition {}", partition);
+		}
+	}
+
+	private static String partitionName(YearMonth month) {
+		return TABLE + "_" + month.format(PARTITION_SUFFIX);
+	}
+
+	private static YearMonth monthOf(String partition) {
+		try {
+			return YearMonth.parse(partition.substring(TABLE.length() + 1), PARTITION_SUFFIX);
+		} catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static String truncate(String error) {
+		return error == null || error.length() <= 500 ? error : error.substring(0, 500);
+	}
+}
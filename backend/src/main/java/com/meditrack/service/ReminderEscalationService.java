@@ -0,0 +1,123 @@
+package com.meditrack.service;
+
+import com.meditrack.entity.FamilyMember;
+import com.meditrack.entity.Medication;
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.NotificationOutbox;
+import com.meditrack.entity.User;
+import com.meditrack.event.ReminderSentEvent;
+import com.meditrack.repository.MedicationReminderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Escalates doses that were not acknowledged in time.
+ *
+ * Every sent reminder schedules a {@value #TYPE} job on the
+ * {@link DelayedJobQueue} for {@code after-minutes} later, replacing the job
+ * of its previous dose. When the job runs and the dose is still
+ * unacknowledged, the account owner gets an SMS and an email through the
+ * outbox, and so does the family member's own contact if it differs from
+ * the owner's.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderEscalationService implements DelayedJobHandler {
+
+	static final String TYPE = "reminder-escalation";
+
+	private final DelayedJobQueue jobQueue;
+	private final MedicationReminderRepository reminderRepository;
+	private final NotificationOutboxService outboxService;
+	private final Clock clock;
+
+	@Value("${app.reminders.escalation.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.escalation.after-minutes:30}")
+	private long afterMinutes;
+
+	@Override
+	public String type() {
+		return TYPE;
+	}
+
+	@EventListener
+	public void onReminderSent(ReminderSentEvent event) {
+		if (!enabled) {
+			return;
+		}
+		try {
+			jobQueue.schedule(TYPE, String.valueOf(event.reminderId()), event.sentAt().toString(),
+					event.sentAt().plusMinutes(afterMinutes));
+		} catch (Exception e) {
+			log.warn("Could not schedule escalation for reminder {}: {}", event.reminderId(), e.getMessage());
+		}
+	}
+
+	@Override
+	@Transactional
+	public void handle(String jobId, String payload) {
+		MedicationReminder reminder = reminderRepository.findWithRecipientById(Long.valueOf(jobId)).orElse(null);
+		if (reminder == null || !awaitingAcknowledgement(reminder)) {
+			return;
+		}
+
+		Medication medication = reminder.getMedication();
+		FamilyMember member = medication.getFamilyMember();
+		User owner = member.getUser();
+		String subject = "Missed dose: " + medication.getName();
+		String message = String.format("MediTrack: %s %s has not confirmed taking %s scheduled at %s.",
+				member.getFirstName(), member.getLastName(), medication.getName(), reminder.getReminderTime());
+		// One escalation per sent dose, however often the job is retried
+		String key = "escalation:" + reminder.getId() + ":" + reminder.getLastSentAt();
+
+		notify(owner.getPhoneNumber(), owner.getEmail(), subject, message, key + ":owner");
+		if (!Objects.equals(member.getPhoneNumber(), owner.getPhoneNumber())
+				|| !Objects.equals(member.getEmail(), owner.getEmail())) {
+			notify(differing(member.getPhoneNumber(), owner.getPhoneNumber()),
+					differing(member.getEmail(), owner.getEmail()), subject, message, key + ":member");
+		}
+		log.info("Escalated unacknowledged reminder {} to the account owner", reminder.getId());
+	}
+
+	/**
+	 * Sent at least {@code after-minutes} ago and not acknowledged since. A
+	 * more recent send belongs to a later dose, which has its own job.
+	 */
+	private boolean awaitingAcknowledgement(MedicationReminder reminder) {
+		MedicationReminder.ReminderStatus status = reminder.getStatus();
+		LocalDateTime sentAt = reminder.getLastSentAt();
+		if (status != MedicationReminder.ReminderStatus.SENT && status != MedicationReminder.ReminderStatus.MISSED) {
+			return false;
+		}
+		if (sentAt == null || sentAt.isAfter(LocalDateTime.now(clock).minusMinutes(afterMinutes).plusMinutes(1))) {
+			return false;
+		}
+		return reminder.getLastAcknowledgedAt() == null || reminder.getLastAcknowledgedAt().isBefore(sentAt);
+	}
+
+	private void notify(String phoneNumber, String email, String subject, String message, String key) {
+		if (phoneNumber != null && !phoneNumber.isEmpty()) {
+			outboxService.enqueue(NotificationOutbox.Priority.ESCALATION, NotificationOutbox.Channel.SMS,
+					NotificationOutboxService.formatPhone(phoneNumber), null, message, key + ":sms");
+		}
+		if (email != null && !email.isEmpty()) {
+			outboxService.enqueue(NotificationOutbox.Priority.ESCALATION, NotificationOutbox.Channel.EMAIL, email,
+					subject, message, key + ":email");
+		}
+	}
+
+	private static String differing(String value, String ownerValue) {
+		return Objects.equals(value, ownerValue) ? null : value;
+	}
+}
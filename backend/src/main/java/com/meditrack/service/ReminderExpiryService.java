@@ -0,0 +1,92 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.repository.MedicationReminderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Nightly sweep that marks every reminder of an ended medication COMPLETED,
+ * so the reminder path stops loading them one by one when they come due.
+ *
+ * The update runs in chunks of {@code chunk-size} rows, each in its own
+ * transaction, so no single statement holds locks on a large part of
+ * {@code medication_reminders}. Progress of the current or last run is
+ * available from {@link #getProgress()}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderExpiryService {
+
+	private final MedicationReminderRepository reminderRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final LeaderElectionService leaderElection;
+	private final Clock clock;
+
+	@Value("${app.reminders.expiry.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.expiry.chunk-size:1000}")
+	private int chunkSize;
+
+	private volatile ExpiryProgress progress = ExpiryProgress.idle();
+
+	public ExpiryProgress getProgress() {
+		return progress;
+	}
+
+	@Scheduled(cron = "${app.reminders.expiry.cron:0 15 2 * * *}")
+	@LeaderOnly("reminder-expiry")
+	public void sweepEndedMedications() {
+		if (!enabled) {
+			return;
+		}
+		LocalDateTime startedAt = LocalDateTime.now(clock);
+		// No zone is more than a day ahead of UTC
+		LocalDate latestToday = startedAt.toLocalDate().plusDays(1);
+		long completed = 0;
+		int chunks = 0;
+		progress = new ExpiryProgress(true, startedAt, null, 0, 0);
+		try {
+			Integer updated;
+			do {
+				updated = transactionTemplate.execute(status -> reminderRepository.completeEnded(startedAt, latestToday, chunkSize));
+				completed += updated != null ? updated : 0;
+				chunks++;
+				progress = new ExpiryProgress(true, startedAt, null, completed, chunks);
+				if (!leaderElection.stillLeading()) {
+					log.warn("Lost leadership during expiry sweep, stopping after {} reminders", completed);
+					return;
+				}
+			} while (updated != null && updated == chunkSize);
+		} finally {
+			progress = new ExpiryProgress(false, startedAt, LocalDateTime.now(clock), completed, chunks);
+		}
+		if (completed > 0) {
+			log.info("Completed {} reminders of ended medications in {} chunks ({})", completed, chunks,
+					Duration.between(startedAt, LocalDateTime.now(clock)));
+		}
+	}
+
+	public record ExpiryProgress(
+			boolean active,
+			LocalDateTime startedAt,
+			LocalDateTime finishedAt,
+			long completed,
+			int chunks) {
+
+		static ExpiryProgress idle() {
+			return new ExpiryProgress(false, null, null, 0, 0);
+		}
+	}
+}
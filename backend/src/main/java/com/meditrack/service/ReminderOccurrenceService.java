@@ -0,0 +1,248 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.dto.MedicationReminderSummaryDto;
+import com.meditrack.entity.FamilyMember;
+import com.meditrack.entity.Medication;
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.ReminderOccurrence;
+import com.meditrack.entity.User;
+import com.meditrack.exception.BadRequestException;
+import com.meditrack.repository.MedicationReminderRepository;
+import com.meditrack.repository.ReminderOccurrenceRepository;
+import com.meditrack.util.ZonedSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code reminder_occurrences}, the next {@code count} occurrences
+ * of every active reminder. Schedule changes rewrite a reminder's future
+ * occurrences in the same transaction; a background job tops up reminders
+ * whose materialized occurrences run out within {@code refill-before-days}
+ * and prunes occurrences older than {@code retention-days}. Occurrences are
+ * stored in UTC and shown in the owner's zone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderOccurrenceService {
+
+	private static final String INSERT_SQL = "INSERT INTO reminder_occurrences (reminder_id, user_id, scheduled_at) " +
+			"VALUES (?, ?, ?) ON CONFLICT (reminder_id, scheduled_at) DO NOTHING";
+
+	private final ReminderOccurrenceRepository occurrenceRepository;
+	private final MedicationReminderRepository reminderRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final UserService userService;
+	private final LeaderElectionService leaderElection;
+	private final Clock clock;
+
+	@Value("${app.reminders.occurrences.count:14}")
+	private int count;
+
+	@Value("${app.reminders.occurrences.refill-before-days:2}")
+	private long refillBeforeDays;
+
+	@Value("${app.reminders.occurrences.batch-size:200}")
+	private int batchSize;
+
+	@Value("${app.reminders.occurrences.retention-days:1}")
+	private long retentionDays;
+
+	@Value("${app.reminders.occurrences.max-range-days:31}")
+	private long maxRangeDays;
+
+	@Value("${app.reminders.occurrences.max-results:1000}")
+	private int maxResults;
+
+	/**
+	 * Replaces the future occurrences of reminders whose schedule changed.
+	 */
+	@Transactional
+	public void rematerialize(Collection<MedicationReminder> reminders) {
+		LocalDateTime now = LocalDateTime.now(clock);
+		for (MedicationReminder reminder : reminders) {
+			occurrenceRepository.deleteByReminderIdAfter(reminder.getId(), now);
+			reminder.setOccurrencesUntil(null);
+		}
+		materialize(reminders, Collections.emptyMap(), now);
+	}
+
+	/**
+	 * Occurrences of the current user's reminders in [from, to), given in the
+	 * user's zone. Defaults to the next 7 days.
+	 */
+	@Transactional(readOnly = true)
+	public List<MedicationReminderSummaryDto> getOccurrences(LocalDateTime from, LocalDateTime to) {
+		User user = userService.getCurrentUser();
+		ZoneId zone = ZonedSchedule.zoneOf(user);
+		LocalDateTime start = from != null ? from : ZonedSchedule.toLocal(LocalDateTime.now(clock), zone);
+		LocalDateTime end = to != null ? to : start.plusDays(7);
+		if (!end.isAfter(start) || Duration.between(start, end).toDays() > maxRangeDays) {
+			throw new BadRequestException("Range must be positive and at most " + maxRangeDays + " days");
+		}
+		return findOccurrences(user.getId(), ZonedSchedule.toUtc(start, zone), ZonedSchedule.toUtc(end, zone), maxResults);
+	}
+
+	/**
+	 * Occurrences of the user's active reminders in [from, to) UTC, earliest
+	 * first. A reminder whose current dose is queued or sent still has its
+	 * later doses listed; reminders that are completed or missed, and
+	 * medications that ended before today in the user's zone, have none.
+	 */
+	@Transactional(readOnly = true)
+	public List<MedicationReminderSummaryDto> findOccurrences(Long userId, LocalDateTime from, LocalDateTime to, int limit) {
+		ZoneId zone = ZonedSchedule.zoneOf(userService.getUserById(userId));
+		LocalDate today = LocalDate.now(clock.withZone(zone));
+		return occurrenceRepository.findForUserBetween(userId, from, to, today, PageRequest.of(0, limit)).stream()
+				.map(this::toSummary)
+				.collect(Collectors.toList());
+	}
+
+	@Scheduled(fixedDelayString = "${app.reminders.occurrences.extend-interval-ms:300000}")
+	@LeaderOnly("reminder-occurrences")
+	public void extendOccurrences() {
+		LocalDateTime now = LocalDateTime.now(clock);
+		LocalDateTime refillBefore = now.plusDays(refillBeforeDays);
+		long afterId = 0;
+		int extended = 0;
+		List<Long> ids;
+		do {
+			long from = afterId;
+			ids = transactionTemplate.execute(status -> {
+				List<Long> due = reminderRepository.findNeedingOccurrences(now, refillBefore, from, batchSize);
+				if (!due.isEmpty()) {
+					Map<Long, Long> upcoming = occurrenceRepository.countUpcoming(due, now).stream()
+							.collect(Collectors.toMap(ReminderOccurrenceRepository.UpcomingCount::getReminderId,
+									ReminderOccurrenceRepository.UpcomingCount::getUpcoming));
+					materialize(reminderRepository.findWithMedicationByIdIn(due), upcoming, now);
+				}
+				return due;
+			});
+			if (ids == null || ids.isEmpty()) {
+				break;
+			}
+			afterId = ids.get(ids.size() - 1);
+			extended += ids.size();
+			if (!leaderElection.stillLeading()) {
+				log.warn("Lost leadership while extending occurrences, stopping after {} reminders", extended);
+				return;
+			}
+		} while (ids.size() == batchSize);
+
+		LocalDateTime cutoff = now.minusDays(retentionDays);
+		int pruned = 0;
+		Integer deleted;
+		do {
+			deleted = transactionTemplate.execute(status -> occurrenceRepository.deleteBefore(cutoff, batchSize));
+			pruned += deleted != null ? deleted : 0;
+		} while (deleted != null && deleted == batchSize);
+
+		if (extended > 0 || pruned > 0) {
+			log.info("Extended occurrences of {} reminders, pruned {} past occurrences", extended, pruned);
+		}
+	}
+
+	/**
+	 * Appends occurrences after each reminder's last materialized one until it
+	 * has {@code count} upcoming and reaches the refill horizon, stopping at the
+	 * medication's end date.
+	 */
+	private void materialize(Collection<MedicationReminder> reminders, Map<Long, Long> upcoming, LocalDateTime now) {
+		LocalDateTime refillBefore = now.plusDays(refillBeforeDays);
+		List<Object[]> rows = new ArrayList<>();
+
+		for (MedicationReminder reminder : reminders) {
+			Medication medication = reminder.getMedication();
+			User user = medication.getFamilyMember().getUser();
+			ZoneId zone = ZonedSchedule.zoneOf(user);
+			LocalDateTime endExclusive = medication.getEndDate() != null
+					? ZonedSchedule.toUtc(medication.getEndDate().plusDays(1).atStartOfDay(), zone)
+					: null;
+
+			LocalDateTime after = latest(now, reminder.getOccurrencesUntil(),
+					ZonedSchedule.toUtc(medication.getStartDate().atStartOfDay(), zone).minusNanos(1));
+			LocalDateTime last = reminder.getOccurrencesUntil();
+			long have = upcoming.getOrDefault(reminder.getId(), 0L);
+
+			while (have < count || after.isBefore(refillBefore)) {
+				LocalDateTime next = ZonedSchedule.nextOccurrence(reminder.getDaysMask(), reminder.getReminderTime(), after, zone);
+				if (endExclusive != null && !next.isBefore(endExclusive)) {
+					last = endExclusive;
+					break;
+				}
+				rows.add(new Object[] {reminder.getId(), user.getId(), next});
+				have++;
+				after = next;
+				last = next;
+			}
+			reminder.setOccurrencesUntil(last);
+		}
+		jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+	}
+
+	private MedicationReminderSummaryDto toSummary(ReminderOccurrence occurrence) {
+		MedicationReminder reminder = occurrence.getReminder();
+		Medication medication = reminder.getMedication();
+		FamilyMember member = medication.getFamilyMember();
+
+		return MedicationReminderSummaryDto.builder()
+				.id(reminder.getId())
+				.medicationId(medication.getId())
+				.medicationName(medication.getName())
+				.familyMemberId(member.getId())
+				.familyMemberName(member.getFirstName())
+				.reminderTime(reminder.getReminderTime())
+				.scheduledAt(ZonedSchedule.toLocal(occurrence.getScheduledAt(), ZonedSchedule.zoneOf(member.getUser())))
+				.reminderType(reminder.getReminderType().name())
+				.status(statusOf(occurrence, reminder).name())
+				.build();
+	}
+
+	/**
+	 * Only the dose in flight is QUEUED or SENT. A queued reminder still
+	 * points at that dose, a sent one already at the next, so the doses from
+	 * there on are reported as PENDING.
+	 */
+	private static MedicationReminder.ReminderStatus statusOf(ReminderOccurrence occurrence, MedicationReminder reminder) {
+		MedicationReminder.ReminderStatus status = reminder.getStatus();
+		LocalDateTime next = reminder.getNextReminderAt();
+		if (next == null) {
+			return status;
+		}
+		boolean upcoming = switch (status) {
+			case QUEUED -> occurrence.getScheduledAt().isAfter(next);
+			case SENT -> !occurrence.getScheduledAt().isBefore(next);
+			default -> false;
+		};
+		return upcoming ? MedicationReminder.ReminderStatus.PENDING : status;
+	}
+
+	private static LocalDateTime latest(LocalDateTime a, LocalDateTime b, LocalDateTime c) {
+		LocalDateTime result = a;
+		if (b != null && b.isAfter(result)) {
+			result = b;
+		}
+		return c.isAfter(result) ? c : result;
+	}
+}
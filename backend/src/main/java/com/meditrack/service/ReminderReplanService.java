@@ -0,0 +1,200 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.event.UserTimeZoneChangedEvent;
+import com.meditrack.repository.MedicationReminderRepository;
+import com.meditrack.util.ZonedSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Re-plans reminder fire times when the zone they were planned in no longer
+ * holds.
+ *
+ * When a user moves to another zone, their reminders are re-planned in the
+ * same transaction: a regular occurrence keeps its wall-clock date and time
+ * in the new zone, while a snoozed fire time keeps its instant. Since every
+ * occurrence is converted with the offset in force on its own date, a DST
+ * change needs no re-planning by itself. A daily pass still checks the
+ * reminders of each zone with a transition in the next {@code lookahead-days}
+ * that fire after it, and moves those planned with the offset from before
+ * the transition, such as rows written under older time zone rules. Only
+ * rows whose fire time changes are written, each guarded by its old value so
+ * a reminder that fired in the meantime is left alone.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderReplanService {
+
+	private static final String COLUMNS = "SELECT r.id, r.days_mask, r.reminder_time, r.next_reminder_at " +
+			"FROM medication_reminders r " +
+			"JOIN medications m ON m.id = r.medication_id " +
+			"JOIN family_members fm ON fm.id = m.family_member_id ";
+
+	private static final String OPEN = "AND r.status IN ('PENDING', 'SENT', 'MISSED') ";
+
+	private static final String USER_REMINDERS_SQL = COLUMNS +
+			"WHERE fm.user_id = ? AND r.next_reminder_at IS NOT NULL " + OPEN;
+
+	// Keyset pages over the global next_reminder_at index, narrowed to one zone
+	private static final String ZONE_REMINDERS_SQL = COLUMNS +
+			"JOIN users u ON u.id = fm.user_id " +
+			"WHERE u.time_zone = ? AND (r.next_reminder_at, r.id) > (?, ?) AND r.next_reminder_at < ? " + OPEN +
+			"ORDER BY r.next_reminder_at, r.id LIMIT ?";
+
+	private static final String UPDATE_SQL = "UPDATE medication_reminders " +
+			"SET next_reminder_at = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND next_reminder_at = ?";
+
+	private static final RowMapper<Row> ROW_MAPPER = (rs, rowNum) -> new Row(rs.getLong(1), rs.getInt(2),
+			rs.getObject(3, LocalTime.class), rs.getObject(4, LocalDateTime.class));
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final MedicationReminderRepository reminderRepository;
+	private final ReminderOccurrenceService occurrenceService;
+	private final LeaderElectionService leaderElection;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+
+	@Value("${app.reminders.replan.lookahead-days:8}")
+	private long lookaheadDays;
+
+	@Value("${app.reminders.replan.batch-size:500}")
+	private int batchSize;
+
+	/**
+	 * Runs inside the transaction that changed the zone.
+	 */
+	@EventListener
+	public void onTimeZoneChanged(UserTimeZoneChangedEvent event) {
+		LocalDateTime now = LocalDateTime.now(clock);
+		List<Row> rows = jdbcTemplate.query(USER_REMINDERS_SQL, ROW_MAPPER, event.userId());
+		List<Move> moves = new ArrayList<>();
+		for (Row row : rows) {
+			LocalDateTime occurrence = occurrenceOf(row, event.previousZone());
+			if (occurrence == null) {
+				continue;
+			}
+			LocalDateTime moved = ZonedSchedule.toUtc(occurrence, event.zone());
+			if (!moved.isAfter(now)) {
+				moved = ZonedSchedule.nextOccurrence(row.daysMask(), row.time(), now, event.zone());
+			}
+			if (!moved.equals(row.nextAt())) {
+				moves.add(new Move(row, moved));
+			}
+		}
+		apply(moves);
+		if (!rows.isEmpty()) {
+			occurrenceService.rematerialize(reminderRepository.findWithMedicationByIdIn(
+					rows.stream().map(Row::id).toList()));
+		}
+		log.info("Re-planned {} of {} reminders of user {} from {} to {}",
+				moves.size(), rows.size(), event.userId(), event.previousZone(), event.zone());
+	}
+
+	@Scheduled(cron = "${app.reminders.replan.cron:0 5 0 * * *}")
+	@LeaderOnly("reminder-replan")
+	public void replanTransitions() {
+		LocalDateTime now = LocalDateTime.now(clock);
+		LocalDateTime until = now.plusDays(lookaheadDays);
+		List<String> zones = jdbcTemplate.queryForList("SELECT DISTINCT time_zone FROM users", String.class);
+		for (String zoneId : zones) {
+			ZoneId zone = ZonedSchedule.parse(zoneId);
+			ZoneOffsetTransition transition = zone != null
+					? zone.getRules().nextTransition(now.toInstant(ZoneOffset.UTC))
+					: null;
+			if (transition == null || !transition.getDateTimeBefore().isBefore(ZonedSchedule.toLocal(until, zone))) {
+				continue;
+			}
+			LocalDateTime from = LocalDateTime.ofInstant(transition.getInstant(), ZoneOffset.UTC);
+			int moved = replanZone(zone, transition.getOffsetBefore(), from, until);
+			if (moved > 0) {
+				log.info("Re-planned {} reminders in {} around the transition at {}", moved, zone, transition);
+			}
+			if (!leaderElection.stillLeading()) {
+				log.warn("Lost leadership while re-planning reminders, stopping");
+				return;
+			}
+		}
+	}
+
+	private int replanZone(ZoneId zone, ZoneOffset offsetBefore, LocalDateTime from, LocalDateTime until) {
+		int moved = 0;
+		LocalDateTime afterAt = from.minusNanos(1000);
+		long afterId = 0;
+		List<Row> rows;
+		do {
+			rows = jdbcTemplate.query(ZONE_REMINDERS_SQL, ROW_MAPPER, zone.getId(), afterAt, afterId, until, batchSize);
+			List<Move> moves = new ArrayList<>();
+			for (Row row : rows) {
+				LocalDateTime occurrence = occurrenceOf(row, offsetBefore);
+				LocalDateTime planned = occurrence != null ? ZonedSchedule.toUtc(occurrence, zone) : null;
+				if (planned != null && !planned.equals(row.nextAt())) {
+					moves.add(new Move(row, planned));
+				}
+			}
+			if (!moves.isEmpty()) {
+				transactionTemplate.executeWithoutResult(status -> apply(moves));
+				moved += moves.size();
+			}
+			if (!rows.isEmpty()) {
+				Row last = rows.get(rows.size() - 1);
+				afterAt = last.nextAt();
+				afterId = last.id();
+			}
+		} while (rows.size() == batchSize);
+		return moved;
+	}
+
+	private void apply(List<Move> moves) {
+		int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, moves, moves.size(), (ps, move) -> {
+			ps.setObject(1, move.nextAt());
+			ps.setLong(2, move.row().id());
+			ps.setObject(3, move.row().nextAt());
+		});
+		int i = 0;
+		for (int[] batch : updated) {
+			for (int count : batch) {
+				Move move = moves.get(i++);
+				if (count > 0) {
+					eventPublisher.publishEvent(new ReminderScheduleChangedEvent(move.row().id(), move.nextAt()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The wall-clock occurrence {@code row} fires for when planned in
+	 * {@code planned}, or null if its fire time is not a regular occurrence,
+	 * e.g. a snooze.
+	 */
+	private static LocalDateTime occurrenceOf(Row row, ZoneId planned) {
+		LocalDateTime occurrence = ZonedSchedule.toLocal(row.nextAt(), planned).toLocalDate().atTime(row.time());
+		return ZonedSchedule.toUtc(occurrence, planned).equals(row.nextAt()) ? occurrence : null;
+	}
+
+	private record Row(long id, int daysMask, LocalTime time, LocalDateTime nextAt) {
+	}
+
+	private record Move(Row row, LocalDateTime nextAt) {
+	}
+}
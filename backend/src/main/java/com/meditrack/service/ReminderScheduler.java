@@ -0,0 +1,346 @@
+package com.meditrack.service;
+
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.repository.MedicationReminderRepository;
+import com.meditrack.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Fires reminders from an in-memory timing wheel instead of polling the
+ * database. The wheel holds every pending reminder whose next fire time falls
+ * inside the loaded horizon; the horizon is refilled from the database only
+ * when it runs low, and kept current by {@link ReminderScheduleChangedEvent}s.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderScheduler {
+
+	private final MedicationReminderRepository reminderRepository;
+	private final ReminderService reminderService;
+	private final ReminderCatchUpService catchUpService;
+	private final ReminderClaimService claimService;
+	private final LeaderElectionService leaderElection;
+	private final TaskScheduler taskScheduler;
+	private final Clock clock;
+
+	@Value("${app.reminders.timing-wheel.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.timing-wheel.tick-ms:100}")
+	private long tickMs;
+
+	@Value("${app.reminders.timing-wheel.wheel-size:512}")
+	private int wheelSize;
+
+	@Value("${app.reminders.timing-wheel.horizon-minutes:60}")
+	private long horizonMinutes;
+
+	@Value("${app.reminders.timing-wheel.refill-before-minutes:10}")
+	private long refillBeforeMinutes;
+
+	@Value("${app.reminders.timing-wheel.max-loaded:200000}")
+	private int maxLoaded;
+
+	// Delay before a reminder that was leased elsewhere or failed is fired again
+	@Value("${app.reminders.timing-wheel.retry-ms:30000}")
+	private long retryMs;
+
+	private final Object lock = new Object();
+	private TimingWheel<Long> wheel;
+	private LocalDateTime horizonEnd;
+	private LocalDateTime refillAt;
+	// Changes seen while a refill reads the database; they win over its snapshot
+	private Map<Long, LocalDateTime> changedDuringRefill;
+	private Thread worker;
+	private ScheduledFuture<?> wakeup;
+	private LocalDateTime wakeupAt;
+	private volatile boolean running;
+
+	/**
+	 * Every replica runs its own wheel over the same rows; without claims
+	 * each of them would send every reminder.
+	 */
+	@PostConstruct
+	void checkClaims() {
+		if (enabled && !claimService.isEnabled()) {
+			throw new IllegalStateException("The reminder timing wheel requires app.reminders.claim.enabled=true");
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			log.info("Reminder timing wheel disabled, falling back to polling");
+			return;
+		}
+		synchronized (lock) {
+			wheel = new TimingWheel<>(tickMs, wheelSize, clock.millis());
+			horizonEnd = LocalDateTime.now(clock);
+			refillAt = horizonEnd;
+		}
+		running = true;
+		worker = new Thread(this::run, "reminder-timing-wheel");
+		worker.setDaemon(true);
+		worker.start();
+		log.info("Reminder timing wheel started (tick {} ms, horizon {} min)", tickMs, horizonMinutes);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (worker != null) {
+			worker.interrupt();
+		}
+	}
+
+	public boolean isActive() {
+		return running;
+	}
+
+	public int size() {
+		synchronized (lock) {
+			return wheel != null ? wheel.size() : 0;
+		}
+	}
+
+	/**
+	 * With claims every node polls, since a claimed reminder is processed by
+	 * one node only; without them polling is left to the leader.
+	 */
+	@Scheduled(fixedRateString = "${app.reminders.poll-interval-ms:10000}")
+	public void pollDueReminders() {
+		// The timing wheel fires reminders itself; polling is only the fallback
+		if (enabled) {
+			return;
+		}
+		if (claimService.isEnabled()) {
+			poll();
+			return;
+		}
+		LeaderElectionService.Lease lease = leaderElection.lead("reminder-poll");
+		if (lease == null) {
+			return;
+		}
+		try {
+			poll();
+		} finally {
+			leaderElection.endRun(lease);
+		}
+	}
+
+	private void poll() {
+		try {
+			catchUpService.catchUp(LocalDateTime.now(clock));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		reminderService.processDueReminders();
+	}
+
+	/**
+	 * Re-arms for a reminder another node (or this one) scheduled to fire at
+	 * {@code nextReminderAt}. The wheel takes the entry directly; in polling
+	 * mode a one-off run is scheduled if it is earlier than the next pending
+	 * wake-up, so the poll interval can stay long.
+	 */
+	public void wake(Long reminderId, LocalDateTime nextReminderAt) {
+		if (running) {
+			onScheduleChanged(new ReminderScheduleChangedEvent(reminderId, nextReminderAt));
+			return;
+		}
+		if (enabled) {
+			// Wheel not started yet; its first refill loads the reminder
+			return;
+		}
+		synchronized (lock) {
+			if (wakeup != null && !wakeup.isDone() && !nextReminderAt.isBefore(wakeupAt)) {
+				return;
+			}
+			if (wakeup != null) {
+				wakeup.cancel(false);
+			}
+			wakeupAt = nextReminderAt;
+			wakeup = taskScheduler.schedule(this::runWakeup,
+					nextReminderAt.toInstant(ZoneOffset.UTC));
+		}
+	}
+
+	/**
+	 * Forces the wheel to reload its horizon from the database on the next
+	 * iteration, e.g. after wake-up notifications may have been missed.
+	 */
+	public void reload() {
+		synchronized (lock) {
+			if (!running) {
+				return;
+			}
+			refillAt = LocalDateTime.now(clock);
+			lock.notifyAll();
+		}
+	}
+
+	private void runWakeup() {
+		try {
+			reminderService.processDueReminders();
+		} catch (Exception e) {
+			log.error("Reminder wake-up run failed: {}", e.getMessage(), e);
+		}
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onScheduleChanged(ReminderScheduleChangedEvent event) {
+		if (!running) {
+			return;
+		}
+		synchronized (lock) {
+			if (changedDuringRefill != null) {
+				changedDuringRefill.put(event.reminderId(), event.nextReminderAt());
+			}
+			if (event.nextReminderAt() == null || event.nextReminderAt().isAfter(horizonEnd)) {
+				// Beyond the horizon the next refill picks it up
+				wheel.cancel(event.reminderId());
+			} else {
+				wheel.schedule(event.reminderId(), toEpochMilli(event.nextReminderAt()));
+			}
+			lock.notifyAll();
+		}
+	}
+
+	private void run() {
+		try {
+			// Work off an outage backlog before the wheel loads what is left of it
+			catchUpService.catchUp(LocalDateTime.now(clock));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception e) {
+			log.error("Reminder catch-up failed: {}", e.getMessage(), e);
+		}
+
+		while (running) {
+			try {
+				refillIfLow();
+				List<Long> expired;
+				synchronized (lock) {
+					long now = clock.millis();
+					long wakeAt = Math.min(wheel.nextExpiration(), toEpochMilli(refillAt));
+					if (wakeAt > now) {
+						lock.wait(wakeAt - now);
+						continue;
+					}
+					expired = wheel.advance(now);
+				}
+				for (Long reminderId : expired) {
+					if (!reminderService.fireReminder(reminderId, LocalDateTime.now(clock))) {
+						retryLater(reminderId);
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				log.error("Reminder timing wheel iteration failed: {}", e.getMessage(), e);
+				sleepQuietly(1000);
+			}
+		}
+	}
+
+	/**
+	 * Puts a reminder that is still due back on the wheel after
+	 * {@code retry-ms}: its lease may belong to a node that died, or
+	 * processing failed. Left alone if a schedule change re-added it meanwhile.
+	 */
+	private void retryLater(Long reminderId) {
+		synchronized (lock) {
+			if (!wheel.contains(reminderId)) {
+				wheel.schedule(reminderId, clock.millis() + retryMs);
+			}
+		}
+	}
+
+	/**
+	 * Reloads the horizon from the database. The read runs outside the lock,
+	 * so schedule changes committed meanwhile are collected and applied in
+	 * place of the possibly older rows the read returned for them.
+	 */
+	private void refillIfLow() {
+		LocalDateTime now = LocalDateTime.now(clock);
+		synchronized (lock) {
+			if (now.isBefore(refillAt)) {
+				return;
+			}
+			changedDuringRefill = new HashMap<>();
+		}
+
+		LocalDateTime until = now.plusMinutes(horizonMinutes);
+		LocalDateTime nextRefill = until.minusMinutes(refillBeforeMinutes);
+		List<MedicationReminderRepository.ScheduleEntry> entries;
+		try {
+			entries = reminderRepository.findScheduleUntil(until, PageRequest.of(0, maxLoaded));
+		} catch (RuntimeException e) {
+			synchronized (lock) {
+				changedDuringRefill = null;
+			}
+			throw e;
+		}
+		if (entries.size() == maxLoaded) {
+			// Too many to hold: shrink the horizon to what was actually loaded
+			until = entries.get(entries.size() - 1).getNextReminderAt();
+			nextRefill = until;
+		}
+
+		synchronized (lock) {
+			for (MedicationReminderRepository.ScheduleEntry entry : entries) {
+				if (!changedDuringRefill.containsKey(entry.getId()) && !entry.getNextReminderAt().isAfter(until)) {
+					wheel.schedule(entry.getId(), toEpochMilli(entry.getNextReminderAt()));
+				}
+			}
+			for (Map.Entry<Long, LocalDateTime> change : changedDuringRefill.entrySet()) {
+				LocalDateTime nextReminderAt = change.getValue();
+				if (nextReminderAt == null || nextReminderAt.isAfter(until)) {
+					wheel.cancel(change.getKey());
+				} else {
+					wheel.schedule(change.getKey(), toEpochMilli(nextReminderAt));
+				}
+			}
+			changedDuringRefill = null;
+			horizonEnd = until;
+			refillAt = nextRefill;
+		}
+		log.debug("Loaded {} reminders into timing wheel up to {}", entries.size(), until);
+	}
+
+	private static long toEpochMilli(LocalDateTime time) {
+		return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+	}
+
+	private static void sleepQuietly(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -3,19 +3,32 @@ package com.meditrack.service;
 import com.meditrack.entity.Medication;
 import com.meditrack.entity.MedicationReminder;
 import com.meditrack.entity.User;
+import com.meditrack.event.UserDataChangedEvent;
 import com.meditrack.repository.MedicationReminderRepository;
 import com.meditrack.util.NotificationService;
+import com.meditrack.util.ReminderDigest;
+import com.meditrack.util.ReminderNotification;
+import com.meditrack.util.ZonedSchedule;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.DayOfWeek;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -24,74 +37,356 @@ public class ReminderService {
 
 	private final MedicationReminderRepository reminderRepository;
 	private final NotificationService notificationService;
+	private final ReminderClaimService claimService;
+	private final TransactionTemplate transactionTemplate;
+	private final NotificationOutboxService outboxService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+
+	@Value("${app.reminders.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${app.reminders.digest.enabled:true}")
+	private boolean digestEnabled;
+
+	// Later reminders of a window are sent early, so windows stay short
+	@Value("${app.reminders.digest.max-window-minutes:15}")
+	private int maxDigestMinutes;
 
-	@Scheduled(fixedRate = 10000) // Run every minute
-	@Transactional
 	public void processDueReminders() {
- 		processDueReminders(LocalDateTime.now());
+		processDueReminders(LocalDateTime.now(clock));
 	}
 
-	@Transactional
 	public void processDueReminders(LocalDateTime now) {
-		List<MedicationReminder> dueReminders = reminderRepository.findDueReminders(now);
+		if (claimService.isEnabled()) {
+			processClaimedBatches(now);
+			return;
+		}
+
+		processDueChunks(now);
+	}
+
+	/**
+	 * Walks the due reminders in keyset order, {@code chunk-size} rows at a
+	 * time, and commits after every chunk. Memory and transaction length stay
+	 * bounded however large the backlog is.
+	 */
+	private void processDueChunks(LocalDateTime now) {
+		DueCursor cursor = DueCursor.START;
+		int processed = 0;
+		do {
+			cursor = processDueChunk(now, cursor, chunkSize);
+			processed += cursor.size();
+		} while (cursor.size() == chunkSize);
+
+		log.info("Processed {} due reminders", processed);
+	}
 
-		log.info("Processing {} due reminders", dueReminders.size());
+	/**
+	 * Processes the next {@code limit} due reminders after {@code from} in one
+	 * transaction. A failure rolls the whole chunk back, so a failed chunk is
+	 * split in halves and retried until the failing reminders are isolated;
+	 * those are skipped and still due on the next run.
+	 */
+	public DueCursor processDueChunk(LocalDateTime now, DueCursor from, int limit) {
+		try {
+			DueCursor next = transactionTemplate.execute(status -> {
+				List<MedicationReminder> chunk = findDueChunk(now, from, limit);
+				// Captured before processing moves next_reminder_at forward
+				DueCursor cursor = from.after(chunk);
+
+				Set<Long> changedUsers = new LinkedHashSet<>();
+				for (MedicationReminder reminder : chunk) {
+					// Already folded into an earlier reminder's digest
+					if (reminder.getStatus() == MedicationReminder.ReminderStatus.PENDING) {
+						changedUsers.add(processReminder(reminder));
+					}
+				}
+				publishChanged(changedUsers);
+				return cursor;
+			});
+			return next != null ? next : from.after(List.of());
+		} catch (Exception e) {
+			log.error("Error processing reminder chunk after {}: {}", from.lastId(), e.getMessage(), e);
+			List<Long> ids = new ArrayList<>();
+			DueCursor next = transactionTemplate.execute(status -> {
+				List<MedicationReminder> chunk = findDueChunk(now, from, limit);
+				chunk.forEach(reminder -> ids.add(reminder.getId()));
+				return from.after(chunk);
+			});
+			Set<Long> changedUsers = new LinkedHashSet<>();
+			if (ids.size() > 1) {
+				processIsolated(ids.subList(0, ids.size() / 2), now, changedUsers);
+				processIsolated(ids.subList(ids.size() / 2, ids.size()), now, changedUsers);
+			}
+			publishChanged(changedUsers);
+			return next != null ? next : from.after(List.of());
+		}
+	}
 
-		for (MedicationReminder reminder : dueReminders) {
-			try {
-				processReminder(reminder);
-			} catch (Exception e) {
-				log.error("Error processing reminder {}: {}", reminder.getId(), e.getMessage(), e);
+	/**
+	 * Processes {@code ids} in one transaction, or each half on its own if
+	 * that fails. A single reminder that fails is logged and left due.
+	 */
+	private void processIsolated(List<Long> ids, LocalDateTime now, Set<Long> changedUsers) {
+		try {
+			List<Long> users = transactionTemplate.execute(status -> {
+				List<Long> processed = new ArrayList<>();
+				for (Long reminderId : ids) {
+					processed.add(processReminderById(reminderId, now));
+				}
+				return processed;
+			});
+			if (users != null) {
+				changedUsers.addAll(users);
 			}
+		} catch (Exception e) {
+			if (ids.size() == 1) {
+				log.error("Error processing reminder {}: {}", ids.get(0), e.getMessage(), e);
+				return;
+			}
+			processIsolated(ids.subList(0, ids.size() / 2), now, changedUsers);
+			processIsolated(ids.subList(ids.size() / 2, ids.size()), now, changedUsers);
+		}
+	}
+
+	private List<MedicationReminder> findDueChunk(LocalDateTime now, DueCursor from, int limit) {
+		return reminderRepository.findDueChunk(now, from.lastAt(), from.lastId(), PageRequest.of(0, limit));
+	}
+
+	/**
+	 * Claims due reminders batch by batch so that every replica can run this
+	 * concurrently. Reminders that fail keep their lease and are retried by
+	 * whichever node claims them once it expires.
+	 */
+	private void processClaimedBatches(LocalDateTime now) {
+		int claimed;
+		do {
+			claimed = processClaimedBatch(now, claimService.getBatchSize());
+		} while (claimed == claimService.getBatchSize());
+	}
+
+	/**
+	 * Claims up to {@code limit} due reminders and fires each in its own
+	 * transaction. Returns the number claimed.
+	 */
+	public int processClaimedBatch(LocalDateTime now, int limit) {
+		List<Long> claimed = claimService.claimDueBatch(now, limit);
+		log.info("Claimed {} due reminders", claimed.size());
+
+		Set<Long> changedUsers = new LinkedHashSet<>();
+		for (Long reminderId : claimed) {
+			changedUsers.add(fire(reminderId, now));
+		}
+		publishChanged(changedUsers);
+		return claimed.size();
+	}
+
+	/**
+	 * Processes one reminder in its own transaction. Returns false if it is
+	 * still pending and due afterwards, because another node holds its lease
+	 * or processing failed; the caller should try it again later.
+	 */
+	public boolean fireReminder(Long reminderId, LocalDateTime now) {
+		Long userId = fire(reminderId, now);
+		if (userId != null) {
+			publishChanged(Collections.singleton(userId));
+			return true;
+		}
+		try {
+			return !reminderRepository.existsByIdAndStatusAndNextReminderAtLessThanEqual(reminderId,
+					MedicationReminder.ReminderStatus.PENDING, now);
+		} catch (Exception e) {
+			log.warn("Could not check reminder {} after a skipped run: {}", reminderId, e.getMessage());
+			return false;
+		}
+	}
+
+	// The owner of the reminder if it was processed, else null
+	private Long fire(Long reminderId, LocalDateTime now) {
+		try {
+			return transactionTemplate.execute(status -> processReminderById(reminderId, now));
+		} catch (Exception e) {
+			log.error("Error processing reminder {}: {}", reminderId, e.getMessage(), e);
+			return null;
 		}
 	}
 
+	/**
+	 * Processes the reminder if it is still due. Returns its owner's id, or
+	 * null if it was skipped.
+	 */
 	@Transactional
-	public void processReminder(MedicationReminder reminder) {
+	public Long processReminderById(Long reminderId, LocalDateTime now) {
+		if (claimService.isEnabled() && !claimService.claim(reminderId, now)) {
+			log.debug("Skipping reminder {}: claimed by another node or no longer pending", reminderId);
+			return null;
+		}
+
+		MedicationReminder reminder = reminderRepository.findWithRecipientById(reminderId).orElse(null);
+
+		if (reminder == null) {
+			return null;
+		}
+
+		// The wheel may hold a stale entry if the reminder changed since it was loaded
+		if (reminder.getStatus() != MedicationReminder.ReminderStatus.PENDING
+				|| reminder.getNextReminderAt() == null
+				|| reminder.getNextReminderAt().isAfter(now)) {
+			log.debug("Skipping reminder {}: no longer due", reminderId);
+			reminder.setClaimedBy(null);
+			reminder.setClaimedUntil(null);
+			return null;
+		}
+		return processReminder(reminder);
+	}
+
+	/**
+	 * Marks the reminder QUEUED and writes its notifications to the outbox in
+	 * the same transaction. Status, last sent time and next fire time are
+	 * written back by {@link NotificationDispatcher} after delivery. Returns
+	 * the id of the owner, whose dashboard the caller invalidates once per
+	 * batch.
+	 */
+	@Transactional
+	public Long processReminder(MedicationReminder reminder) {
 		Medication medication = reminder.getMedication();
 		User user = medication.getFamilyMember().getUser();
+		ZoneId zone = ZonedSchedule.zoneOf(user);
+
+		reminder.setClaimedBy(null);
+		reminder.setClaimedUntil(null);
 
 		// Check if medication is still active
-		if (medication.getEndDate() != null && medication.getEndDate().isBefore(LocalDate.now())) {
+		if (hasEnded(medication, zone)) {
 			reminder.setStatus(MedicationReminder.ReminderStatus.COMPLETED);
 			reminderRepository.save(reminder);
-			return;
+			return user.getId();
 		}
 
-		// Send notification
-		notificationService.sendMedicationReminder(reminder, medication, user);
+		Integer digestMinutes = user.getReminderDigestMinutes();
+		if (digestEnabled && digestMinutes != null && digestMinutes > 0) {
+			// Windows stored before the limit was lowered are cut down to it
+			processDigest(reminder, user, zone, Math.min(digestMinutes, maxDigestMinutes));
+			return user.getId();
+		}
 
-		// Update reminder status
-		reminder.setStatus(MedicationReminder.ReminderStatus.SENT);
-		reminder.setLastSentAt(LocalDateTime.now());
-		reminder.setNextReminderAt(calculateNextReminderTime(reminder));
+		LocalDateTime nextReminderAt = calculateNextReminderTime(reminder, zone);
+		ReminderNotification notification = notificationService.buildMedicationReminder(
+				reminder, medication, user, nextReminderAt);
 
+		if (outboxService.enqueueReminder(notification) > 0) {
+			reminder.setStatus(MedicationReminder.ReminderStatus.QUEUED);
+		} else {
+			// Nothing to deliver on any channel; move straight to the next occurrence
+			reminder.setStatus(MedicationReminder.ReminderStatus.SENT);
+			reminder.setLastSentAt(LocalDateTime.now(clock));
+			reminder.setNextReminderAt(nextReminderAt);
+		}
 		reminderRepository.save(reminder);
-		log.info("Reminder {} processed successfully", reminder.getId());
+		log.info("Reminder {} queued for delivery", reminder.getId());
+		return user.getId();
 	}
 
-	private LocalDateTime calculateNextReminderTime(MedicationReminder reminder) {
-		LocalDate today = LocalDate.now();
-		LocalTime reminderTime = reminder.getReminderTime();
-		List<Integer> daysOfWeek = reminder.getDaysOfWeek();
+	// Every outcome of processing changes the status shown on the dashboard
+	private void publishChanged(Set<Long> userIds) {
+		for (Long userId : userIds) {
+			if (userId != null) {
+				eventPublisher.publishEvent(new UserDataChangedEvent(userId));
+			}
+		}
+	}
 
-		if (daysOfWeek == null || daysOfWeek.isEmpty()) {
-			// Daily reminder
-			LocalDateTime nextTime = LocalDateTime.of(today.plusDays(1), reminderTime);
-			return nextTime;
+	/**
+	 * Collapses every pending reminder of the user that falls into the same
+	 * digest window as {@code lead} into one notification per channel. Windows
+	 * are aligned to multiples of the user's digest length from midnight in
+	 * the user's zone, so
+	 * with 15 minutes 08:00 and 08:10 share a digest while 08:20 starts the
+	 * next one. Reminders later in the window are sent early with the first,
+	 * by at most {@code max-window-minutes}, and each then moves on to the
+	 * occurrence after its own.
+	 */
+	private void processDigest(MedicationReminder lead, User user, ZoneId zone, int windowMinutes) {
+		LocalDateTime localStart = digestWindowStart(ZonedSchedule.toLocal(lead.getNextReminderAt(), zone), windowMinutes);
+		LocalDateTime windowStart = ZonedSchedule.toUtc(localStart, zone);
+		LocalDateTime windowEnd = ZonedSchedule.toUtc(localStart.plusMinutes(windowMinutes), zone);
+
+		List<MedicationReminder> members = new ArrayList<>();
+		members.add(lead);
+		List<Long> siblingIds = reminderRepository.lockDigestSiblings(
+				user.getId(), lead.getId(), windowEnd, LocalDateTime.now(clock), claimService.getOwner());
+		if (!siblingIds.isEmpty()) {
+			members.addAll(reminderRepository.findWithMedicationByIdIn(siblingIds));
+		}
+
+		List<MedicationReminder> active = new ArrayList<>();
+		Map<Long, LocalDateTime> nextReminderTimes = new HashMap<>();
+		for (MedicationReminder member : members) {
+			member.setClaimedBy(null);
+			member.setClaimedUntil(null);
+			if (hasEnded(member.getMedication(), zone)) {
+				member.setStatus(MedicationReminder.ReminderStatus.COMPLETED);
+			} else {
+				active.add(member);
+				nextReminderTimes.put(member.getId(), calculateNextReminderTime(member, zone));
+			}
 		}
 
-		// Find next matching day
-		int currentDayOfWeek = today.getDayOfWeek().getValue() % 7;
-		for (int i = 1; i <= 7; i++) {
-			int dayToCheck = (currentDayOfWeek + i) % 7;
-			if (daysOfWeek.contains(dayToCheck)) {
-				LocalDate targetDate = today.plusDays(i);
-				return LocalDateTime.of(targetDate, reminderTime);
+		if (!active.isEmpty()) {
+			ReminderDigest digest = notificationService.buildMedicationDigest(user, windowStart, active, nextReminderTimes);
+			Set<Long> queued = outboxService.enqueueDigest(digest);
+			for (MedicationReminder member : active) {
+				if (queued.contains(member.getId())) {
+					member.setStatus(MedicationReminder.ReminderStatus.QUEUED);
+				} else {
+					member.setStatus(MedicationReminder.ReminderStatus.SENT);
+					member.setLastSentAt(LocalDateTime.now(clock));
+					member.setNextReminderAt(nextReminderTimes.get(member.getId()));
+				}
 			}
 		}
+		// Siblings keep their timing wheel entries; those are skipped once not PENDING
+		reminderRepository.saveAll(members);
+		log.info("Digest of {} reminders for user {} queued for delivery", active.size(), user.getId());
+	}
+
+	private static LocalDateTime digestWindowStart(LocalDateTime time, int windowMinutes) {
+		int minuteOfDay = time.getHour() * 60 + time.getMinute();
+		return time.toLocalDate().atStartOfDay().plusMinutes(minuteOfDay - minuteOfDay % windowMinutes);
+	}
 
-		// Fallback: next week
-		return LocalDateTime.of(today.plusDays(7), reminderTime);
+	private boolean hasEnded(Medication medication, ZoneId zone) {
+		return medication.getEndDate() != null && medication.getEndDate().isBefore(LocalDate.now(clock.withZone(zone)));
+	}
+
+	/**
+	 * Next occurrence after the one being sent. Measured from the later of now
+	 * and the occurrence itself, so a reminder pulled forward into a digest
+	 * does not fire again later the same day.
+	 */
+	private LocalDateTime calculateNextReminderTime(MedicationReminder reminder, ZoneId zone) {
+		LocalDateTime now = LocalDateTime.now(clock);
+		LocalDateTime occurrence = reminder.getNextReminderAt();
+		LocalDateTime after = occurrence != null && occurrence.isAfter(now) ? occurrence : now;
+		return ZonedSchedule.nextOccurrence(reminder.getDaysMask(), reminder.getReminderTime(), after, zone);
+	}
+
+	/**
+	 * Keyset position in the due reminders: the last row of the previous
+	 * chunk and how many rows that chunk held.
+	 */
+	public record DueCursor(LocalDateTime lastAt, Long lastId, int size) {
+
+		// Position before any real reminder
+		public static final DueCursor START = new DueCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L, 0);
+
+		private DueCursor after(List<MedicationReminder> chunk) {
+			if (chunk.isEmpty()) {
+				return new DueCursor(lastAt, lastId, 0);
+			}
+			MedicationReminder last = chunk.get(chunk.size() - 1);
+			return new DueCursor(last.getNextReminderAt(), last.getId(), chunk.size());
+		}
 	}
 }
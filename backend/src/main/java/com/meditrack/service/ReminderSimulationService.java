@@ -0,0 +1,307 @@
+package com.meditrack.service;
+
+import com.meditrack.util.QueryCounter;
+import com.meditrack.util.StubChannel;
+import com.meditrack.util.VirtualClock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Replays days of reminder scheduling in seconds (simulation profile only).
+ *
+ * Seeds {@code users} synthetic accounts with their medications and
+ * reminders, then steps a {@link VirtualClock} through {@code days} in ticks
+ * of {@code tick-minutes}. Every tick runs the real due-reminder processing
+ * and outbox dispatch against stub channels, acknowledges {@code ack-rate} of
+ * the doses just sent and re-arms unacknowledged ones after the grace window
+ * through the acknowledgement service. Per-tick throughput, firing
+ * lag and the number of statements executed are logged every
+ * {@code report-every-ticks} ticks and summed up at the end.
+ *
+ * Accounts of a previous run are deleted first. Since every due reminder in
+ * the database is processed, the simulation refuses to run where more than
+ * {@code max-existing-reminders} reminders of real accounts are pending,
+ * none unless raised explicitly.
+ */
+@Slf4j
+@Service
+@Profile("simulation")
+@RequiredArgsConstructor
+public class ReminderSimulationService implements ApplicationRunner {
+
+	private static final String EMAIL_DOMAIN = "@simulation.invalid";
+
+	private static final String SIMULATED_USERS = "SELECT id FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'";
+
+	private static final String SIMULATED_REMINDERS = "SELECT r.id FROM medication_reminders r " +
+			"JOIN medications m ON m.id = r.medication_id " +
+			"JOIN family_members fm ON fm.id = m.family_member_id " +
+			"WHERE fm.user_id IN (" + SIMULATED_USERS + ")";
+
+	private static final String INSERT_USERS_SQL = "INSERT INTO users " +
+			"(email, password, first_name, last_name, phone_number, enabled, mfa_enabled, reminder_digest_minutes) " +
+			"SELECT 'sim-' || g || '" + EMAIL_DOMAIN + "', 'simulation', 'Sim', 'User ' || g, " +
+			"'+1555' || lpad(g::text, 7, '0'), true, false, CASE WHEN random() < ? THEN 30 END " +
+			"FROM generate_series(1, ?) AS g";
+
+	private static final String INSERT_MEMBERS_SQL = "INSERT INTO family_members " +
+			"(user_id, first_name, last_name, relationship, phone_number, email) " +
+			"SELECT id, first_name, last_name, 'SELF', phone_number, email FROM users WHERE id IN (" + SIMULATED_USERS + ")";
+
+	private static final String INSERT_MEDICATIONS_SQL = "INSERT INTO medications " +
+			"(family_member_id, name, dosage, frequency, start_date) " +
+			"SELECT fm.id, 'Simulated medication ' || g, '1 tablet', 'DAILY', ? " +
+			"FROM family_members fm CROSS JOIN generate_series(1, ?) AS g " +
+			"WHERE fm.user_id IN (" + SIMULATED_USERS + ")";
+
+	// Times on a five minute grid, most reminders daily, first occurrence at or after the start
+	private static final String INSERT_REMINDERS_SQL = "INSERT INTO medication_reminders " +
+			"(medication_id, reminder_time, days_mask, reminder_type, status, next_reminder_at) " +
+			"SELECT s.medication_id, s.reminder_time, s.days_mask, s.reminder_type, 'PENDING', " +
+			"  (SELECT min(d.day + s.reminder_time) FROM generate_series(?::timestamp, ?::timestamp, interval '1 day') AS d(day) " +
+			"   WHERE (s.days_mask = 0 OR s.days_mask & (1 << extract(dow FROM d.day)::int) <> 0) " +
+			"   AND d.day + s.reminder_time >= ?) " +
+			"FROM (SELECT m.id AS medication_id, " +
+			"        make_time(floor(random() * 24)::int, floor(random() * 12)::int * 5, 0) AS reminder_time, " +
+			"        CASE WHEN random() < 0.7 THEN 0 ELSE 1 + floor(random() * 127)::int END AS days_mask, " +
+			"        (ARRAY['SMS', 'EMAIL', 'BOTH'])[1 + floor(random() * 3)::int] AS reminder_type " +
+			"      FROM medications m CROSS JOIN generate_series(1, ?) AS g " +
+			"      WHERE m.family_member_id IN (SELECT id FROM family_members WHERE user_id IN (" + SIMULATED_USERS + "))) s";
+
+	private static final String DELETE_OUTBOX_SQL = "DELETE FROM notification_outbox WHERE recipient IN (" +
+			"SELECT email FROM users WHERE id IN (" + SIMULATED_USERS + ") " +
+			"UNION ALL SELECT phone_number FROM users WHERE id IN (" + SIMULATED_USERS + "))";
+
+	private static final String EXISTING_REMINDERS_SQL = "SELECT count(*) FROM medication_reminders " +
+			"WHERE status IN ('PENDING', 'QUEUED') AND id NOT IN (" + SIMULATED_REMINDERS + ")";
+
+	// Lag of the due reminders behind their fire time, as seen at this tick
+	private static final String DUE_SQL = "SELECT count(*), " +
+			"coalesce(sum(extract(epoch FROM ?::timestamp - next_reminder_at)), 0), " +
+			"coalesce(max(extract(epoch FROM ?::timestamp - next_reminder_at)), 0) " +
+			"FROM medication_reminders WHERE status = 'PENDING' AND next_reminder_at <= ?";
+
+	private static final String SENT_SQL = "SELECT count(*) FROM medication_reminders WHERE status = 'SENT' AND last_sent_at = ?";
+
+	// Doses sent at this tick that the simulated patients take
+	private static final String TAKEN_SQL = "SELECT r.id, u.email FROM medication_reminders r " +
+			"JOIN medications m ON m.id = r.medication_id " +
+			"JOIN family_members fm ON fm.id = m.family_member_id " +
+			"JOIN users u ON u.id = fm.user_id " +
+			"WHERE r.status = 'SENT' AND r.last_sent_at = ? AND random() < ?";
+
+	private static final String EXPECTED_SQL = "SELECT count(*) FROM medication_reminders r " +
+			"CROSS JOIN generate_series(?::timestamp, ?::timestamp, interval '1 day') AS d(day) " +
+			"WHERE r.id IN (" + SIMULATED_REMINDERS + ") " +
+			"AND (r.days_mask = 0 OR r.days_mask & (1 << extract(dow FROM d.day)::int) <> 0) " +
+			"AND d.day + r.reminder_time >= ? AND d.day + r.reminder_time < ?";
+
+	private final ReminderService reminderService;
+	private final NotificationDispatcher dispatcher;
+	private final ReminderAcknowledgementService acknowledgementService;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final VirtualClock clock;
+	private final QueryCounter queryCounter;
+	private final List<StubChannel> channels;
+	private final ConfigurableApplicationContext context;
+
+	@Value("${app.simulation.users:1000}")
+	private int users;
+
+	@Value("${app.simulation.medications-per-user:2}")
+	private int medicationsPerUser;
+
+	@Value("${app.simulation.reminders-per-medication:2}")
+	private int remindersPerMedication;
+
+	@Value("${app.simulation.digest-share:0.2}")
+	private double digestShare;
+
+	@Value("${app.simulation.start:}")
+	private String start;
+
+	@Value("${app.simulation.days:7}")
+	private int days;
+
+	@Value("${app.simulation.tick-minutes:1}")
+	private int tickMinutes;
+
+	@Value("${app.simulation.ack-rate:1.0}")
+	private double ackRate;
+
+	@Value("${app.reminders.acknowledgements.grace-minutes:60}")
+	private long graceMinutes;
+
+	@Value("${app.reminders.acknowledgements.missed-chunk-size:1000}")
+	private int missedChunkSize;
+
+	@Value("${app.simulation.report-every-ticks:60}")
+	private int reportEveryTicks;
+
+	@Value("${app.simulation.max-existing-reminders:0}")
+	private long maxExistingReminders;
+
+	@Value("${app.simulation.exit-when-done:true}")
+	private boolean exitWhenDone;
+
+	/**
+	 * Runs once the context is up. A failure propagates and fails the
+	 * startup; otherwise the context is closed when done, which ends the
+	 * process.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		simulate();
+		if (exitWhenDone) {
+			SpringApplication.exit(context);
+		}
+	}
+
+	private void simulate() {
+		Long existing = jdbcTemplate.queryForObject(EXISTING_REMINDERS_SQL, Long.class);
+		if (existing != null && existing > maxExistingReminders) {
+			throw new IllegalStateException(existing + " pending reminders of real accounts in this database; " +
+					"run the simulation against a scratch database");
+		}
+
+		LocalDateTime from = start.isBlank() ? LocalDate.now(clock).atStartOfDay() : LocalDate.parse(start).atStartOfDay();
+		LocalDateTime until = from.plusDays(days);
+		Duration tick = Duration.ofMinutes(tickMinutes);
+		long seeded = seed(from);
+		log.info("Simulating {} reminders from {} to {} in {} minute ticks", seeded, from, until, tickMinutes);
+
+		Totals total = new Totals();
+		Totals window = new Totals();
+		long startNanos = System.nanoTime();
+		for (LocalDateTime now = from; now.isBefore(until); now = now.plus(tick)) {
+			clock.set(now);
+			TickReport report = runTick(now);
+			total.add(report);
+			window.add(report);
+			if (window.ticks == reportEveryTicks) {
+				log.info("Up to {}: {}", now.plus(tick), window);
+				window = new Totals();
+			}
+		}
+		if (window.ticks > 0) {
+			log.info("Up to {}: {}", until, window);
+		}
+
+		double elapsedMinutes = (System.nanoTime() - startNanos) / 60e9;
+		Long expected = jdbcTemplate.queryForObject(EXPECTED_SQL, Long.class, from, until, from, until);
+		log.info("Simulated {} over {} ticks: {}", Duration.between(from, until), total.ticks, total);
+		log.info("Sent {} of {} scheduled occurrences (all of them with ack-rate 1 and no failures), " +
+				"{} simulated days per minute", total.sent, expected, String.format("%.1f", days / elapsedMinutes));
+		channels.forEach(channel -> log.info("{} stub channel: {} delivered, {} failed",
+				channel.channel(), channel.sent(), channel.failed()));
+	}
+
+	/**
+	 * Clears the previous run's accounts and seeds new ones. Returns the
+	 * number of reminders created.
+	 */
+	private long seed(LocalDateTime from) {
+		return transactionTemplate.execute(status -> {
+			jdbcTemplate.update(DELETE_OUTBOX_SQL);
+			jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'");
+			jdbcTemplate.update(INSERT_USERS_SQL, digestShare, users);
+			jdbcTemplate.update(INSERT_MEMBERS_SQL);
+			jdbcTemplate.update(INSERT_MEDICATIONS_SQL, from.toLocalDate(), medicationsPerUser);
+			return (long) jdbcTemplate.update(INSERT_REMINDERS_SQL, from.toLocalDate().atStartOfDay(),
+					from.toLocalDate().plusDays(7).atStartOfDay(), from, remindersPerMedication);
+		});
+	}
+
+	private TickReport runTick(LocalDateTime now) {
+		Due due = jdbcTemplate.queryForObject(DUE_SQL, (rs, rowNum) ->
+				new Due(rs.getInt(1), rs.getDouble(2), rs.getLong(3)), now, now, now);
+
+		long startNanos = System.nanoTime();
+		long queriesBefore = queryCounter.count();
+		reminderService.processDueReminders(now);
+		int dispatched = dispatcher.dispatchPending();
+		long queries = queryCounter.count() - queriesBefore;
+		long wallMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+
+		Integer sent = jdbcTemplate.queryForObject(SENT_SQL, Integer.class, now);
+		Due late = jdbcTemplate.queryForObject(DUE_SQL, (rs, rowNum) ->
+				new Due(rs.getInt(1), rs.getDouble(2), rs.getLong(3)), now, now, now);
+		acknowledgementService.applyTaken(jdbcTemplate.query(TAKEN_SQL, (rs, rowNum) ->
+				new ReminderAcknowledgementService.TakenDose(rs.getLong(1), rs.getString(2), now), now, ackRate));
+		LocalDateTime cutoff = now.minusMinutes(graceMinutes);
+		int missed;
+		do {
+			missed = acknowledgementService.rearmUnacknowledged(cutoff);
+		} while (missed == missedChunkSize);
+
+		return new TickReport(due.count(), due.lagSeconds(), due.maxLagSeconds(), sent != null ? sent : 0,
+				late.count(), dispatched, queries, wallMillis);
+	}
+
+	private record Due(int count, double lagSeconds, long maxLagSeconds) {
+	}
+
+	/**
+	 * One tick: reminders due at its start and their summed and largest lag
+	 * behind their fire time, reminders sent and still due at its end,
+	 * outbox rows dispatched, and the statements and wall time it took.
+	 */
+	private record TickReport(int due, double lagSeconds, long maxLagSeconds, int sent, int late, int dispatched,
+			long queries, long wallMillis) {
+	}
+
+	private static class Totals {
+
+		private int ticks;
+		private long due;
+		private double lagSeconds;
+		private long maxLagSeconds;
+		private long sent;
+		private long late;
+		private long dispatched;
+		private long queries;
+		private long maxQueries;
+		private long wallMillis;
+		private long maxWallMillis;
+
+		void add(TickReport report) {
+			ticks++;
+			due += report.due();
+			lagSeconds += report.lagSeconds();
+			maxLagSeconds = Math.max(maxLagSeconds, report.maxLagSeconds());
+			sent += report.sent();
+			late += report.late();
+			dispatched += report.dispatched();
+			queries += report.queries();
+			maxQueries = Math.max(maxQueries, report.queries());
+			wallMillis += report.wallMillis();
+			maxWallMillis = Math.max(maxWallMillis, report.wallMillis());
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d ticks, %d due, %d sent (%.0f/s), %d outbox rows, lag avg %.1fs max %ds, " +
+					"%d still due after their tick, %.1f statements/tick (max %d, %.2f per reminder sent), " +
+					"%.1f ms/tick (max %d)",
+					ticks, due, sent, sent * 1000.0 / Math.max(wallMillis, 1), dispatched,
+					due > 0 ? lagSeconds / due : 0, maxLagSeconds, late,
+					(double) queries / ticks, maxQueries, sent > 0 ? (double) queries / sent : 0,
+					(double) wallMillis / ticks, maxWallMillis);
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package com.meditrack.service;
+
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Wakes the reminder scheduler on every node when a reminder is (re)scheduled
+ * to fire soon, using Postgres {@code LISTEN/NOTIFY}.
+ *
+ * The notification is sent inside the transaction that changed the schedule,
+ * so Postgres delivers it only on commit. Each node opens one connection of
+ * its own, outside the Hikari pool so it does not take a pooled slot for
+ * good, on which it {@code LISTEN}s; received notifications are handed
+ * to {@link ReminderScheduler#wake}. If that connection drops, the listener
+ * reconnects and asks the scheduler to reload, since notifications sent in
+ * the meantime are lost.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReminderWakeupService {
+
+	private static final String CHANNEL = "reminder_schedule";
+
+	private final DataSourceProperties dataSourceProperties;
+	private final JdbcTemplate jdbcTemplate;
+	private final ReminderScheduler reminderScheduler;
+	private final Clock clock;
+
+	@Value("${app.reminders.notify.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.reminders.notify.within-minutes:60}")
+	private long withinMinutes;
+
+	@Value("${app.reminders.notify.poll-ms:5000}")
+	private int pollMs;
+
+	@Value("${app.reminders.notify.reconnect-ms:5000}")
+	private long reconnectMs;
+
+	private Thread listener;
+	private volatile boolean running;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		listener = new Thread(this::listen, "reminder-notify-listener");
+		listener.setDaemon(true);
+		listener.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (listener != null) {
+			listener.interrupt();
+		}
+	}
+
+	/**
+	 * Sends the notification as part of the publishing transaction. Only
+	 * near-term fire times are broadcast; later ones are picked up by each
+	 * scheduler's regular refill.
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+	public void onScheduleChanged(ReminderScheduleChangedEvent event) {
+		if (!enabled || event.nextReminderAt() == null
+				|| event.nextReminderAt().isAfter(LocalDateTime.now(clock).plusMinutes(withinMinutes))) {
+			return;
+		}
+		String payload = event.reminderId() + "|" + event.nextReminderAt();
+		jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, CHANNEL, payload);
+	}
+
+	private void listen() {
+		boolean reconnected = false;
+		while (running) {
+			try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+					dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("LISTEN " + CHANNEL);
+				}
+				log.info("Listening for reminder schedule notifications");
+				if (reconnected) {
+					reminderScheduler.reload();
+				}
+				PGConnection pgConnection = connection.unwrap(PGConnection.class);
+				while (running) {
+					PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+					if (notifications == null) {
+						continue;
+					}
+					for (PGNotification notification : notifications) {
+						handle(notification.getParameter());
+					}
+				}
+			} catch (SQLException e) {
+				if (!running) {
+					return;
+				}
+				log.warn("Reminder notification listener lost its connection: {}", e.getMessage());
+				reconnected = true;
+				try {
+					Thread.sleep(reconnectMs);
+				} catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void handle(String payload) {
+		int separator = payload.indexOf('|');
+		try {
+			Long reminderId = Long.valueOf(payload.substring(0, separator));
+			LocalDateTime nextReminderAt = LocalDateTime.parse(payload.substring(separator + 1));
+			reminderScheduler.wake(reminderId, nextReminderAt);
+		} catch (RuntimeException e) {
+			log.warn("Ignoring malformed reminder notification '{}': {}", payload, e.getMessage());
+		}
+	}
+}
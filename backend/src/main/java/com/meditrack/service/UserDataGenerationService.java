@@ -0,0 +1,42 @@
+package com.meditrack.service;
+
+import com.meditrack.event.UserDataChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local generation of each user's data, bumped once a change to it commits.
+ * Coalesced reads include the generation in their key, so a read that
+ * started before the caller's own write is never shared with the caller.
+ *
+ * Users are hashed onto a fixed number of counters, so memory does not grow
+ * with the number of users. Users sharing a counter see each other's bumps,
+ * which at worst makes one of them start a read of their own.
+ */
+@Service
+public class UserDataGenerationService {
+
+	private static final int COUNTERS = 4096;
+
+	private final AtomicLongArray generations = new AtomicLongArray(COUNTERS);
+
+	public long current(Long userId) {
+		return generations.get(index(userId));
+	}
+
+	/**
+	 * Runs once the change is committed, before the writer's request
+	 * returns, so the writer's next read starts a flight of its own.
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onUserDataChanged(UserDataChangedEvent event) {
+		generations.incrementAndGet(index(event.userId()));
+	}
+
+	private static int index(Long userId) {
+		return userId == null ? 0 : Long.hashCode(userId) & (COUNTERS - 1);
+	}
+}
@@ -1,27 +1,46 @@
 package com.meditrack.service;
 
 import com.meditrack.entity.User;
+import com.meditrack.event.UserDataChangedEvent;
+import com.meditrack.event.UserTimeZoneChangedEvent;
+import com.meditrack.exception.BadRequestException;
 import com.meditrack.exception.ResourceNotFoundException;
 import com.meditrack.repository.UserRepository;
+import com.meditrack.util.ZonedSchedule;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZoneId;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.reminders.digest.max-window-minutes:15}")
+    private int maxDigestMinutes;
 
     public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
+        return userRepository.findByEmail(getCurrentUserEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
+    /**
+     * The authenticated user's email, read from the security context
+     * without a database lookup.
+     */
+    public String getCurrentUserEmail() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName();
+    }
+
     public User getUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
@@ -36,6 +55,39 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    @Transactional
+    public User updateReminderDigest(Integer windowMinutes) {
+        if (windowMinutes != null && (windowMinutes < 0 || windowMinutes > maxDigestMinutes)) {
+            throw new BadRequestException("Digest window must be between 0 and " + maxDigestMinutes + " minutes");
+        }
+        User user = getCurrentUser();
+        user.setReminderDigestMinutes(windowMinutes != null && windowMinutes > 0 ? windowMinutes : null);
+        return userRepository.save(user);
+    }
+
+    /**
+     * Moves the user to another IANA time zone. Their reminders keep their
+     * wall-clock times; fire times are re-planned in this same transaction
+     * (see ReminderReplanService), so both change together or not at all.
+     */
+    @Transactional
+    public User updateTimeZone(String timeZone) {
+        ZoneId zone = ZonedSchedule.parse(timeZone);
+        if (zone == null) {
+            throw new BadRequestException("Unknown time zone: " + timeZone);
+        }
+        User user = getCurrentUser();
+        ZoneId previous = ZonedSchedule.zoneOf(user);
+        if (!zone.equals(previous)) {
+            user.setTimeZone(zone.getId());
+            user = userRepository.save(user);
+            eventPublisher.publishEvent(new UserTimeZoneChangedEvent(user.getId(), previous, zone));
+            // Upcoming doses are shown in the user's zone
+            eventPublisher.publishEvent(new UserDataChangedEvent(user.getId()));
+        }
+        return user;
+    }
+
     @Transactional
     public User toggleMfa() {
         User user = getCurrentUser();
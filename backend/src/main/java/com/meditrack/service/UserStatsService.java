@@ -0,0 +1,126 @@
+package com.meditrack.service;
+
+import com.meditrack.config.LeaderOnly;
+import com.meditrack.entity.UserStats;
+import com.meditrack.repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Per-user counts of family members, medications, health records and
+ * reminders for the dashboard, read with a single primary-key lookup.
+ *
+ * The services that create or delete counted rows adjust the counters
+ * inside their own transaction, so a count moves exactly when the change commits.
+ * A user without a row yet is counted from the source tables on first use;
+ * if another transaction creates the row first, the change is added to it
+ * in the same statement instead of being dropped.
+ * A nightly job recounts users in chunks of {@code chunk-size} and repairs
+ * any counter that drifted, locking the chunk's rows so counter updates
+ * committing meanwhile are neither lost nor counted twice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+
+	private final UserStatsRepository statsRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final LeaderElectionService leaderElection;
+
+	@Value("${app.stats.reconcile.enabled:true}")
+	private boolean reconcileEnabled;
+
+	@Value("${app.stats.reconcile.chunk-size:1000}")
+	private int chunkSize;
+
+	@Transactional
+	public UserStats getStats(Long userId) {
+		return statsRepository.findById(userId).orElseGet(() -> {
+			statsRepository.initialize(userId);
+			return statsRepository.findById(userId).orElseThrow();
+		});
+	}
+
+	public void memberAdded(Long userId) {
+		adjust(userId, 1, 0, 0, 0);
+	}
+
+	/**
+	 * Counts a removed family member along with the medications, reminders
+	 * and health records deleted with it.
+	 */
+	public void memberRemoved(Long userId, long medications, long reminders, long healthRecords) {
+		adjust(userId, -1, -medications, -healthRecords, -reminders);
+	}
+
+	public void medicationAdded(Long userId) {
+		adjust(userId, 0, 1, 0, 0);
+	}
+
+	public void medicationRemoved(Long userId, long reminders) {
+		adjust(userId, 0, -1, 0, -reminders);
+	}
+
+	public void reminderAdded(Long userId) {
+		adjust(userId, 0, 0, 0, 1);
+	}
+
+	public void reminderRemoved(Long userId) {
+		adjust(userId, 0, 0, 0, -1);
+	}
+
+	public void healthRecordAdded(Long userId) {
+		adjust(userId, 0, 0, 1, 0);
+	}
+
+	public void healthRecordRemoved(Long userId) {
+		adjust(userId, 0, 0, -1, 0);
+	}
+
+	private void adjust(Long userId, long members, long medications, long healthRecords, long reminders) {
+		if (statsRepository.adjust(userId, members, medications, healthRecords, reminders) == 0) {
+			// A new row's recount already sees this transaction's own change
+			statsRepository.initializeOrAdjust(userId, members, medications, healthRecords, reminders);
+		}
+	}
+
+	@Scheduled(cron = "${app.stats.reconcile.cron:0 45 3 * * *}")
+	@LeaderOnly("user-stats-reconcile")
+	public void reconcile() {
+		if (!reconcileEnabled) {
+			return;
+		}
+		long afterId = 0;
+		int repaired = 0;
+		List<Long> ids;
+		do {
+			ids = statsRepository.findUserIdsAfter(afterId, chunkSize);
+			if (ids.isEmpty()) {
+				break;
+			}
+			long fromId = ids.get(0);
+			long toId = ids.get(ids.size() - 1);
+			Integer updated = transactionTemplate.execute(status -> {
+				statsRepository.lockRange(fromId, toId);
+				return statsRepository.reconcileRange(fromId, toId);
+			});
+			repaired += updated != null ? updated : 0;
+			afterId = toId;
+			if (!leaderElection.stillLeading()) {
+				log.warn("Lost leadership while reconciling user stats, stopping after user {}", afterId);
+				return;
+			}
+		} while (ids.size() == chunkSize);
+		if (repaired > 0) {
+			log.warn("Repaired drifted dashboard counts of {} users", repaired);
+		}
+	}
+}
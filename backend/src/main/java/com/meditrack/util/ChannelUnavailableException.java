@@ -0,0 +1,21 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.NotificationOutbox;
+
+/**
+ * Thrown instead of sending while a channel's circuit breaker is open. The
+ * message never reached the provider, so it does not count as an attempt.
+ */
+public class ChannelUnavailableException extends Exception {
+
+	private final long retryAfterMillis;
+
+	public ChannelUnavailableException(NotificationOutbox.Channel channel, long retryAfterMillis) {
+		super(channel + " provider unavailable, circuit open for " + retryAfterMillis + " ms");
+		this.retryAfterMillis = retryAfterMillis;
+	}
+
+	public long getRetryAfterMillis() {
+		return retryAfterMillis;
+	}
+}
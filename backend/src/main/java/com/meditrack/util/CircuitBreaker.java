@@ -0,0 +1,103 @@
+package com.meditrack.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consecutive-failure circuit breaker for one provider.
+ *
+ * After {@code failureThreshold} failures in a row the breaker opens and
+ * {@link #tryAcquire()} refuses calls for the open period. Then a single
+ * trial call is let through (half-open): success closes the breaker, failure
+ * opens it again for twice as long, up to {@code maxOpenNanos}.
+ */
+public class CircuitBreaker {
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final int failureThreshold;
+	private final long baseOpenNanos;
+	private final long maxOpenNanos;
+
+	private State state = State.CLOSED;
+	private int consecutiveFailures;
+	private long openNanos;
+	private long openUntilNanos;
+	private boolean trialInFlight;
+
+	public CircuitBreaker(int failureThreshold, long openMillis, long maxOpenMillis) {
+		if (failureThreshold <= 0 || openMillis <= 0 || maxOpenMillis < openMillis) {
+			throw new IllegalArgumentException("Invalid circuit breaker settings");
+		}
+		this.failureThreshold = failureThreshold;
+		this.baseOpenNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+		this.maxOpenNanos = TimeUnit.MILLISECONDS.toNanos(maxOpenMillis);
+		this.openNanos = baseOpenNanos;
+	}
+
+	/**
+	 * Whether a call may go ahead. A caller that gets true must report the
+	 * outcome with {@link #onSuccess()} or {@link #onFailure()}.
+	 */
+	public synchronized boolean tryAcquire() {
+		if (state == State.CLOSED) {
+			return true;
+		}
+		if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+			state = State.HALF_OPEN;
+		}
+		if (state == State.HALF_OPEN && !trialInFlight) {
+			trialInFlight = true;
+			return true;
+		}
+		return false;
+	}
+
+	public synchronized void onSuccess() {
+		state = State.CLOSED;
+		consecutiveFailures = 0;
+		openNanos = baseOpenNanos;
+		trialInFlight = false;
+	}
+
+	public synchronized void onFailure() {
+		if (state == State.HALF_OPEN) {
+			openNanos = Math.min(maxOpenNanos, openNanos * 2);
+			open();
+			return;
+		}
+		if (++consecutiveFailures >= failureThreshold && state == State.CLOSED) {
+			open();
+		}
+	}
+
+	/**
+	 * Gives back a permit whose call did not reach the provider, so a
+	 * half-open breaker can let the next call through as its trial.
+	 */
+	public synchronized void release() {
+		trialInFlight = false;
+	}
+
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * Milliseconds until an open breaker lets a trial call through; 0 when
+	 * calls are allowed.
+	 */
+	public synchronized long retryAfterMillis() {
+		if (state != State.OPEN) {
+			return 0;
+		}
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openUntilNanos - System.nanoTime()));
+	}
+
+	private void open() {
+		state = State.OPEN;
+		trialInFlight = false;
+		openUntilNanos = System.nanoTime() + openNanos;
+	}
+}
@@ -0,0 +1,178 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.NotificationOutbox;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SMTP email channel. Keeps a small pool of authenticated SMTP transports
+ * open between sends, so consecutive messages share one session instead of
+ * paying for connect, STARTTLS and AUTH on every email. Idle sessions are
+ * closed after {@code idle-timeout-seconds}; a transport that fails is
+ * discarded and replaced on the next send.
+ */
+@Slf4j
+@Component
+@Profile("!simulation")
+@RequiredArgsConstructor
+public class EmailChannel implements NotificationChannel {
+
+	private final JavaMailSenderImpl mailSender;
+
+	@Value("${app.notifications.channels.email.rate-per-second:5}")
+	private double ratePerSecond;
+
+	@Value("${app.notifications.channels.email.burst:10}")
+	private int burst;
+
+	// Tokens of the burst that only OTPs and escalations may use
+	@Value("${app.notifications.channels.email.reserved-tokens:2}")
+	private int reservedTokens;
+
+	@Value("${app.notifications.channels.email.max-connections:2}")
+	private int maxConnections;
+
+	@Value("${app.notifications.channels.email.idle-timeout-seconds:60}")
+	private long idleTimeoutSeconds;
+
+	private final ConcurrentLinkedDeque<PooledTransport> idleTransports = new ConcurrentLinkedDeque<>();
+	private Semaphore connectionPermits;
+	private TokenBucket rateLimiter;
+
+	@PostConstruct
+	public void init() {
+		rateLimiter = new TokenBucket(ratePerSecond, burst);
+		// Routine messages always keep at least one token of the burst
+		reservedTokens = Math.max(0, Math.min(reservedTokens, burst - 1));
+		connectionPermits = new Semaphore(maxConnections);
+	}
+
+	@PreDestroy
+	public void close() {
+		PooledTransport pooled;
+		while ((pooled = idleTransports.poll()) != null) {
+			closeQuietly(pooled.transport());
+		}
+	}
+
+	@Override
+	public NotificationOutbox.Channel channel() {
+		return NotificationOutbox.Channel.EMAIL;
+	}
+
+	@Override
+	public boolean isConfigured() {
+		return hasText(mailSender.getUsername()) && hasText(mailSender.getPassword()) && hasText(mailSender.getHost());
+	}
+
+	@Override
+	public void send(NotificationOutbox.Priority priority, String to, String subject, String text) throws MessagingException, InterruptedException {
+		if (to == null || to.isEmpty()) {
+			log.warn("Email address is null or empty. Cannot send email.");
+			return;
+		}
+
+		// Check if email is configured
+		if (!hasText(mailSender.getUsername())) {
+			log.warn("Email not configured. MAIL_USERNAME is missing in .env. Email not sent to: {}", to);
+			return;
+		}
+
+		if (!hasText(mailSender.getPassword())) {
+			log.warn("Email password not configured. MAIL_PASSWORD is missing in .env. Email not sent to: {}. " +
+					"For Gmail, you must use an App Password (not your regular password). " +
+					"Generate one at: https://myaccount.google.com/apppasswords", to);
+			return;
+		}
+
+		if (!hasText(mailSender.getHost())) {
+			log.warn("Email host not configured. MAIL_HOST is missing in .env. Email not sent to: {}", to);
+			return;
+		}
+
+		MimeMessage message = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+		helper.setFrom(mailSender.getUsername());
+		helper.setTo(to);
+		helper.setSubject(subject);
+		helper.setText(text);
+		message.saveChanges();
+
+		if (priority == NotificationOutbox.Priority.ROUTINE) {
+			rateLimiter.acquireLeaving(reservedTokens);
+		} else {
+			rateLimiter.acquire();
+		}
+		log.debug("Attempting to send email to: {}, subject: {}", to, subject);
+		connectionPermits.acquire();
+		try {
+			Transport transport = borrowTransport();
+			try {
+				transport.sendMessage(message, message.getAllRecipients());
+			} catch (MessagingException e) {
+				closeQuietly(transport);
+				throw e;
+			}
+			idleTransports.push(new PooledTransport(transport, System.nanoTime()));
+		} finally {
+			connectionPermits.release();
+		}
+		log.info("Email sent successfully to: {}", to);
+	}
+
+	/**
+	 * Rejected or malformed recipient addresses are problems of the message,
+	 * not of the SMTP server.
+	 */
+	@Override
+	public boolean isProviderFailure(Exception e) {
+		return !(e instanceof SendFailedException) && !(e instanceof AddressException);
+	}
+
+	private Transport borrowTransport() throws MessagingException {
+		long idleLimit = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+		PooledTransport pooled;
+		while ((pooled = idleTransports.poll()) != null) {
+			if (System.nanoTime() - pooled.lastUsedNanos() < idleLimit && pooled.transport().isConnected()) {
+				return pooled.transport();
+			}
+			closeQuietly(pooled.transport());
+		}
+
+		Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+		transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+		log.debug("Opened SMTP session to {}", mailSender.getHost());
+		return transport;
+	}
+
+	private static void closeQuietly(Transport transport) {
+		try {
+			transport.close();
+		} catch (MessagingException e) {
+			log.debug("Error closing SMTP session: {}", e.getMessage());
+		}
+	}
+
+	private static boolean hasText(String value) {
+		return value != null && !value.isEmpty();
+	}
+
+	private record PooledTransport(Transport transport, long lastUsedNanos) {
+	}
+}
@@ -0,0 +1,32 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.NotificationOutbox;
+
+/**
+ * A delivery channel such as SMS or email. Implementations are Spring beans
+ * that keep their provider client open between sends and throttle themselves
+ * to the provider's rate limit; {@link NotificationService} routes each
+ * message to the bean registered for its channel.
+ */
+public interface NotificationChannel {
+
+	NotificationOutbox.Channel channel();
+
+	boolean isConfigured();
+
+	/**
+	 * Sends one message, blocking while the channel is rate limited. Routine
+	 * messages may not use the capacity the channel reserves for higher
+	 * priorities. Provider failures propagate so the caller can retry.
+	 */
+	void send(NotificationOutbox.Priority priority, String recipient, String subject, String body) throws Exception;
+
+	/**
+	 * Whether a failure of {@link #send} points at the provider (outage,
+	 * timeout, throttling) rather than at the message itself, such as an
+	 * invalid recipient. Only provider failures trip the circuit breaker.
+	 */
+	default boolean isProviderFailure(Exception e) {
+		return true;
+	}
+}
@@ -2,105 +2,75 @@ package com.meditrack.util;
 
 import com.meditrack.entity.Medication;
 import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.NotificationOutbox;
 import com.meditrack.entity.User;
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.meditrack.service.NotificationOutboxService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username:}")
-    private String mailUsername;
-
-    @Value("${spring.mail.password:}")
-    private String mailPassword;
-
-    @Value("${spring.mail.host:}")
-    private String mailHost;
-
-    @Value("${twilio.account-sid:}")
-    private String twilioAccountSid;
-
-    @Value("${twilio.auth-token:}")
-    private String twilioAuthToken;
-
-    @Value("${twilio.phone-number:}")
-    private String twilioPhoneNumber;
+    private final List<NotificationChannel> channelBeans;
+    private final NotificationOutboxService outboxService;
+    private final Map<NotificationOutbox.Channel, NotificationChannel> channels = new EnumMap<>(NotificationOutbox.Channel.class);
+    private final Map<NotificationOutbox.Channel, CircuitBreaker> breakers = new EnumMap<>(NotificationOutbox.Channel.class);
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
 
-    public void sendSms(String phoneNumber, String message) {
-        if (twilioAccountSid == null || twilioAccountSid.isEmpty()) {
-            log.warn("Twilio credentials not configured. SMS not sent to: {}", phoneNumber);
-            return;
-        }
+    @Value("${app.notifications.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold;
 
-        if (phoneNumber == null || phoneNumber.isEmpty()) {
-            log.warn("Phone number is null or empty. Cannot send SMS.");
-            return;
+    @Value("${app.notifications.breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Value("${app.notifications.breaker.max-open-seconds:300}")
+    private long breakerMaxOpenSeconds;
+
+    @PostConstruct
+    public void registerChannels() {
+        for (NotificationChannel channel : channelBeans) {
+            if (channels.putIfAbsent(channel.channel(), channel) != null) {
+                throw new IllegalStateException("Duplicate notification channel for " + channel.channel());
+            }
+            breakers.put(channel.channel(), new CircuitBreaker(breakerFailureThreshold,
+                    breakerOpenSeconds * 1000, breakerMaxOpenSeconds * 1000));
         }
+    }
 
+    public void sendSms(String phoneNumber, String message) {
         try {
-            log.debug("Attempting to send SMS to: {}", phoneNumber);
-            Twilio.init(twilioAccountSid, twilioAuthToken);
-            Message.creator(
-                    new PhoneNumber(phoneNumber),
-                    new PhoneNumber(twilioPhoneNumber),
-                    message
-            ).create();
-            log.info("SMS sent successfully to: {}", phoneNumber);
+            deliverSms(phoneNumber, message);
         } catch (Exception e) {
             log.error("Failed to send SMS to: {}. Error: {} - {}", phoneNumber, e.getClass().getSimpleName(), e.getMessage(), e);
             // Don't throw - allow reminder processing to continue even if SMS fails
         }
     }
 
-    public void sendEmail(String to, String subject, String text) {
-        if (to == null || to.isEmpty()) {
-            log.warn("Email address is null or empty. Cannot send email.");
-            return;
-        }
-
-        // Check if email is configured
-        if (mailUsername == null || mailUsername.isEmpty()) {
-            log.warn("Email not configured. MAIL_USERNAME is missing in .env. Email not sent to: {}", to);
-            return;
-        }
-
-        if (mailPassword == null || mailPassword.isEmpty()) {
-            log.warn("Email password not configured. MAIL_PASSWORD is missing in .env. Email not sent to: {}. " +
-                    "For Gmail, you must use an App Password (not your regular password). " +
-                    "Generate one at: https://myaccount.google.com/apppasswords", to);
-            return;
-        }
+    /**
+     * Sends an SMS and propagates provider failures so the caller can retry.
+     * A missing Twilio configuration or phone number is logged and skipped.
+     */
+    public void deliverSms(String phoneNumber, String message) throws Exception {
+        deliver(NotificationOutbox.Channel.SMS, phoneNumber, null, message);
+    }
 
-        if (mailHost == null || mailHost.isEmpty()) {
-            log.warn("Email host not configured. MAIL_HOST is missing in .env. Email not sent to: {}", to);
-            return;
-        }
-        
+    public void sendEmail(String to, String subject, String text) {
         try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            
-            log.debug("Attempting to send email to: {}, subject: {}", to, subject);
-            mailSender.send(message);
-            log.info("Email sent successfully to: {}", to);
-        } catch (org.springframework.mail.MailAuthenticationException e) {
+            deliverEmail(to, subject, text);
+        } catch (jakarta.mail.AuthenticationFailedException e) {
             log.error("Email authentication failed for: {}. " +
                     "Please check your MAIL_USERNAME and MAIL_PASSWORD in .env file. " +
                     "For Gmail, you MUST use an App Password (generate at: https://myaccount.google.com/apppasswords). " +
@@ -112,7 +82,67 @@ public class NotificationService {
         }
     }
 
-    public void sendMedicationReminder(MedicationReminder reminder, Medication medication, User user) {
+    /**
+     * Sends an email and propagates SMTP failures so the caller can retry.
+     * Missing mail configuration or recipient is logged and skipped.
+     */
+    public void deliverEmail(String to, String subject, String text) throws Exception {
+        deliver(NotificationOutbox.Channel.EMAIL, to, subject, text);
+    }
+
+    public void deliver(NotificationOutbox.Channel channel, String recipient, String subject, String body) throws Exception {
+        deliver(channel, NotificationOutbox.Priority.ROUTINE, recipient, subject, body);
+    }
+
+    /**
+     * Sends one message through the channel bean registered for
+     * {@code channel}, blocking while that channel is rate limited. Routine
+     * messages leave the channel's reserved capacity to higher priorities.
+     * While the channel's circuit breaker is open this fails immediately with
+     * {@link ChannelUnavailableException}.
+     */
+    public void deliver(NotificationOutbox.Channel channel, NotificationOutbox.Priority priority,
+                        String recipient, String subject, String body) throws Exception {
+        NotificationChannel target = channels.get(channel);
+        if (target == null) {
+            throw new IllegalStateException("No notification channel registered for " + channel);
+        }
+        CircuitBreaker breaker = breakers.get(channel);
+        if (!breaker.tryAcquire()) {
+            throw new ChannelUnavailableException(channel, breaker.retryAfterMillis());
+        }
+        try {
+            target.send(priority, recipient, subject, body);
+            breaker.onSuccess();
+        } catch (InterruptedException e) {
+            breaker.release();
+            throw e;
+        } catch (Exception e) {
+            if (target.isProviderFailure(e)) {
+                breaker.onFailure();
+                if (breaker.state() == CircuitBreaker.State.OPEN) {
+                    log.warn("{} circuit open for {} ms after: {}", channel, breaker.retryAfterMillis(), e.getMessage());
+                }
+            } else {
+                // The provider answered, it just rejected this message
+                breaker.onSuccess();
+            }
+            throw e;
+        }
+    }
+
+    public CircuitBreaker.State circuitState(NotificationOutbox.Channel channel) {
+        CircuitBreaker breaker = breakers.get(channel);
+        return breaker != null ? breaker.state() : CircuitBreaker.State.CLOSED;
+    }
+
+    public boolean isConfigured(NotificationOutbox.Channel channel) {
+        NotificationChannel target = channels.get(channel);
+        return target != null && target.isConfigured();
+    }
+
+    public ReminderNotification buildMedicationReminder(MedicationReminder reminder, Medication medication,
+                                                        User user, LocalDateTime nextReminderAt) {
         String medicationName = medication.getName();
         String dosage = medication.getDosage() != null ? medication.getDosage() : "";
         String time = reminder.getReminderTime().toString();
@@ -124,22 +154,49 @@ public class NotificationService {
                 medication.getInstructions() != null ? medication.getInstructions() : ""
         );
 
-        MedicationReminder.ReminderType type = reminder.getReminderType();
-        
-        if (type == MedicationReminder.ReminderType.SMS || type == MedicationReminder.ReminderType.BOTH) {
-            String phoneNumber = user.getPhoneNumber();
-            if (phoneNumber != null && !phoneNumber.isEmpty()) {
-                // Ensure phone number has country code prefix
-                String formattedPhone = phoneNumber.startsWith("+") ? phoneNumber : "+" + phoneNumber;
-                sendSms(formattedPhone, message);
-            } else {
-                log.warn("User {} does not have a phone number configured. SMS not sent.", user.getEmail());
-            }
-        }
+        return new ReminderNotification(
+                reminder.getId(),
+                reminder.getNextReminderAt(),
+                reminder.getReminderType(),
+                user.getPhoneNumber(),
+                user.getEmail(),
+                "Medication Reminder: " + medicationName,
+                message,
+                nextReminderAt
+        );
+    }
 
-        if (type == MedicationReminder.ReminderType.EMAIL || type == MedicationReminder.ReminderType.BOTH) {
-            sendEmail(user.getEmail(), "Medication Reminder: " + medicationName, message);
-        }
+    /**
+     * Builds one digest for reminders of the same user. Every entry holds a
+     * single line; the per-channel message is assembled by {@link ReminderDigest}.
+     */
+    public ReminderDigest buildMedicationDigest(User user, LocalDateTime windowStart,
+                                                List<MedicationReminder> reminders,
+                                                Map<Long, LocalDateTime> nextReminderTimes) {
+        List<ReminderNotification> entries = reminders.stream()
+                .map(reminder -> {
+                    Medication medication = reminder.getMedication();
+                    String line = String.format(
+                            "%s %s at %s (%s). %s",
+                            medication.getName(),
+                            medication.getDosage() != null ? medication.getDosage() : "",
+                            reminder.getReminderTime(),
+                            medication.getFamilyMember().getFirstName(),
+                            medication.getInstructions() != null ? medication.getInstructions() : ""
+                    ).trim();
+                    return new ReminderNotification(
+                            reminder.getId(),
+                            reminder.getNextReminderAt(),
+                            reminder.getReminderType(),
+                            user.getPhoneNumber(),
+                            user.getEmail(),
+                            "Medication Reminder: " + medication.getName(),
+                            line,
+                            nextReminderTimes.get(reminder.getId())
+                    );
+                })
+                .toList();
+        return new ReminderDigest(user.getId(), windowStart, user.getPhoneNumber(), user.getEmail(), entries);
     }
 
     public void sendOtpEmail(String email, String otp) {
@@ -150,12 +207,18 @@ public class NotificationService {
                 "If you didn't request this, please ignore this email.",
                 otp
         );
-        sendEmail(email, subject, text);
+        outboxService.enqueue(NotificationOutbox.Priority.AUTH, NotificationOutbox.Channel.EMAIL, email, subject, text,
+                otpKey(email, "email"));
     }
 
     public void sendOtpSms(String phoneNumber, String otp) {
         String message = String.format("Your MediTrack OTP is: %s. Valid for 10 minutes.", otp);
-        sendSms(phoneNumber, message);
+        outboxService.enqueue(NotificationOutbox.Priority.AUTH, NotificationOutbox.Channel.SMS, phoneNumber, null, message,
+                otpKey(phoneNumber, "sms"));
+    }
+
+    private String otpKey(String recipient, String channel) {
+        return "otp:" + channel + ":" + recipient + ":" + UUID.randomUUID();
     }
 }
 
@@ -0,0 +1,61 @@
+package com.meditrack.util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the statements executed through a wrapped {@link DataSource}, JPA
+ * and plain JDBC alike. A JDBC batch counts once, as it is one round trip.
+ */
+public class QueryCounter {
+
+	private final AtomicLong executed = new AtomicLong();
+
+	public long count() {
+		return executed.get();
+	}
+
+	public DataSource wrap(DataSource dataSource) {
+		return proxy(DataSource.class, dataSource, (method, result) ->
+				result instanceof Connection connection ? wrap(connection) : result);
+	}
+
+	private Connection wrap(Connection connection) {
+		return proxy(Connection.class, connection, (method, result) -> {
+			if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+				return proxy(method.getReturnType(), statement, (statementMethod, executedResult) -> executedResult);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Proxies {@code target} as {@code type}, passing every call through and
+	 * its result to {@code after}. Calls of a statement's execute methods
+	 * are counted.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T proxy(Class<?> type, Object target, ResultHandler after) {
+		boolean statement = Statement.class.isAssignableFrom(type);
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			if (statement && method.getName().startsWith("execute")) {
+				executed.incrementAndGet();
+			}
+			try {
+				return after.apply(method, method.invoke(target, args));
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+	@FunctionalInterface
+	private interface ResultHandler {
+		Object apply(Method method, Object result);
+	}
+}
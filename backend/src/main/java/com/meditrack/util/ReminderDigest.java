@@ -0,0 +1,43 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.NotificationOutbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * All reminders of one user that fall into the same digest window. Each entry
+ * carries a single line describing its medication; {@link #message(List)}
+ * joins the lines of the entries sent on a channel into one notification.
+ */
+public record ReminderDigest(
+		Long userId,
+		LocalDateTime windowStart,
+		String phoneNumber,
+		String email,
+		List<ReminderNotification> reminders) {
+
+	public List<ReminderNotification> remindersFor(NotificationOutbox.Channel channel) {
+		return reminders.stream()
+				.filter(reminder -> covers(reminder.reminderType(), channel))
+				.toList();
+	}
+
+	public String subject(List<ReminderNotification> entries) {
+		return entries.size() == 1
+				? entries.get(0).subject()
+				: "Medication Reminder: " + entries.size() + " medications due";
+	}
+
+	public String message(List<ReminderNotification> entries) {
+		return entries.stream()
+				.map(entry -> "- " + entry.message())
+				.collect(Collectors.joining("\n", "MediTrack Reminder: Time to take\n", ""));
+	}
+
+	private static boolean covers(MedicationReminder.ReminderType type, NotificationOutbox.Channel channel) {
+		return type == MedicationReminder.ReminderType.BOTH || type.name().equals(channel.name());
+	}
+}
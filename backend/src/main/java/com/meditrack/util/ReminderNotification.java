@@ -0,0 +1,20 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.MedicationReminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Detached snapshot of everything needed to send one reminder, built inside
+ * the reminder transaction so senders never touch JPA entities.
+ */
+public record ReminderNotification(
+		Long reminderId,
+		LocalDateTime occurrenceAt,
+		MedicationReminder.ReminderType reminderType,
+		String phoneNumber,
+		String email,
+		String subject,
+		String message,
+		LocalDateTime nextReminderAt) {
+}
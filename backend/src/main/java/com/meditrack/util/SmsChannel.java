@@ -0,0 +1,143 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.NotificationOutbox;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Twilio SMS channel. Builds one {@link TwilioRestClient} at startup on top of
+ * a pooled HTTP connection manager, so sends reuse authenticated keep-alive
+ * connections instead of re-initialising Twilio per message.
+ */
+@Slf4j
+@Component
+@Profile("!simulation")
+public class SmsChannel implements NotificationChannel {
+
+	@Value("${twilio.account-sid:}")
+	private String twilioAccountSid;
+
+	@Value("${twilio.auth-token:}")
+	private String twilioAuthToken;
+
+	@Value("${twilio.phone-number:}")
+	private String twilioPhoneNumber;
+
+	@Value("${app.notifications.channels.sms.rate-per-second:1}")
+	private double ratePerSecond;
+
+	@Value("${app.notifications.channels.sms.burst:5}")
+	private int burst;
+
+	// Tokens of the burst that only OTPs and escalations may use
+	@Value("${app.notifications.channels.sms.reserved-tokens:1}")
+	private int reservedTokens;
+
+	@Value("${app.notifications.channels.sms.max-connections:10}")
+	private int maxConnections;
+
+	@Value("${app.notifications.channels.sms.connect-timeout-ms:5000}")
+	private int connectTimeoutMs;
+
+	@Value("${app.notifications.channels.sms.read-timeout-ms:10000}")
+	private int readTimeoutMs;
+
+	private PoolingHttpClientConnectionManager connectionManager;
+	private TwilioRestClient client;
+	private TokenBucket rateLimiter;
+
+	@PostConstruct
+	public void init() {
+		rateLimiter = new TokenBucket(ratePerSecond, burst);
+		// Routine messages always keep at least one token of the burst
+		reservedTokens = Math.max(0, Math.min(reservedTokens, burst - 1));
+		if (!isConfigured()) {
+			return;
+		}
+		connectionManager = new PoolingHttpClientConnectionManager(60, TimeUnit.SECONDS);
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnections);
+		client = new TwilioRestClient.Builder(twilioAccountSid, twilioAuthToken)
+				.httpClient(new NetworkHttpClient(HttpClientBuilder.create()
+						.setConnectionManager(connectionManager)
+						// Twilio sets no timeouts on a custom client; without these a hung
+						// request blocks its sender thread indefinitely
+						.setDefaultRequestConfig(RequestConfig.custom()
+								.setConnectTimeout(connectTimeoutMs)
+								.setConnectionRequestTimeout(connectTimeoutMs)
+								.setSocketTimeout(readTimeoutMs)
+								.build())
+						.evictIdleConnections(30, TimeUnit.SECONDS)))
+				.build();
+	}
+
+	@PreDestroy
+	public void close() {
+		if (connectionManager != null) {
+			connectionManager.shutdown();
+		}
+	}
+
+	@Override
+	public NotificationOutbox.Channel channel() {
+		return NotificationOutbox.Channel.SMS;
+	}
+
+	@Override
+	public boolean isConfigured() {
+		return twilioAccountSid != null && !twilioAccountSid.isEmpty();
+	}
+
+	@Override
+	public void send(NotificationOutbox.Priority priority, String phoneNumber, String subject, String message) throws InterruptedException {
+		if (!isConfigured()) {
+			log.warn("Twilio credentials not configured. SMS not sent to: {}", phoneNumber);
+			return;
+		}
+
+		if (phoneNumber == null || phoneNumber.isEmpty()) {
+			log.warn("Phone number is null or empty. Cannot send SMS.");
+			return;
+		}
+
+		if (priority == NotificationOutbox.Priority.ROUTINE) {
+			rateLimiter.acquireLeaving(reservedTokens);
+		} else {
+			rateLimiter.acquire();
+		}
+		log.debug("Attempting to send SMS to: {}", phoneNumber);
+		Message.creator(
+				new PhoneNumber(phoneNumber),
+				new PhoneNumber(twilioPhoneNumber),
+				message
+		).create(client);
+		log.info("SMS sent successfully to: {}", phoneNumber);
+	}
+
+	/**
+	 * Twilio answering with a 4xx (other than 429 throttling) rejected the
+	 * message, e.g. an invalid number; the provider itself is fine.
+	 */
+	@Override
+	public boolean isProviderFailure(Exception e) {
+		if (e instanceof ApiException apiException && apiException.getStatusCode() != null) {
+			int status = apiException.getStatusCode();
+			return status >= 500 || status == 429;
+		}
+		return true;
+	}
+}
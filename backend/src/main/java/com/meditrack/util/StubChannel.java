@@ -0,0 +1,52 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.NotificationOutbox;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Channel that delivers nowhere, for the reminder simulation. Fails a
+ * configurable share of sends as provider failures so retries, backoff and
+ * the circuit breaker are exercised too.
+ */
+public class StubChannel implements NotificationChannel {
+
+	private final NotificationOutbox.Channel channel;
+	private final double failureRate;
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+
+	public StubChannel(NotificationOutbox.Channel channel, double failureRate) {
+		this.channel = channel;
+		this.failureRate = failureRate;
+	}
+
+	@Override
+	public NotificationOutbox.Channel channel() {
+		return channel;
+	}
+
+	@Override
+	public boolean isConfigured() {
+		return true;
+	}
+
+	@Override
+	public void send(NotificationOutbox.Priority priority, String recipient, String subject, String body) throws IOException {
+		if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+			failed.incrementAndGet();
+			throw new IOException("Simulated " + channel + " provider failure");
+		}
+		sent.incrementAndGet();
+	}
+
+	public long sent() {
+		return sent.get();
+	}
+
+	public long failed() {
+		return failed.get();
+	}
+}
@@ -0,0 +1,195 @@
+package com.meditrack.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel keyed by an identifier.
+ *
+ * The lowest level has {@code wheelSize} buckets of {@code tickMs} each. Entries
+ * that do not fit into a level are pushed into a lazily created overflow level
+ * whose tick is the full span of the level below. When an overflow bucket
+ * expires its entries are re-inserted and cascade down until they land in the
+ * lowest level or are due. Lowest-level buckets are flushed once the clock has
+ * passed their end, so a key is never reported before its expiration and at
+ * most one tick after it.
+ *
+ * The wheel does not own a thread or read the system clock: callers drive it
+ * with {@link #advance(long)} and use {@link #nextExpiration()} to decide how
+ * long to sleep. Scheduling a key that is already present replaces the
+ * previous entry. Not thread safe; callers synchronize externally.
+ */
+public class TimingWheel<K> {
+
+	private final Map<K, Entry<K>> entries = new HashMap<>();
+	// On equal deadlines the lowest-level bucket must flush before an overflow
+	// bucket advances the clock past it, hence the tie-break on expiration
+	private final PriorityQueue<Bucket<K>> pendingBuckets = new PriorityQueue<>((a, b) -> a.deadline != b.deadline
+			? Long.compare(a.deadline, b.deadline)
+			: Long.compare(a.expiration, b.expiration));
+	private final List<K> due = new ArrayList<>();
+	private final Level root;
+
+	public TimingWheel(long tickMs, int wheelSize, long startMs) {
+		if (tickMs <= 0 || wheelSize <= 1) {
+			throw new IllegalArgumentException("tickMs must be positive and wheelSize greater than 1");
+		}
+		this.root = new Level(tickMs, wheelSize, startMs);
+	}
+
+	/**
+	 * Schedules {@code key} to expire at {@code expirationMs}. Keys whose
+	 * expiration is already behind the wheel's clock are returned by the next
+	 * {@link #advance(long)} call.
+	 */
+	public void schedule(K key, long expirationMs) {
+		cancel(key);
+		Entry<K> entry = new Entry<>(key, expirationMs);
+		entries.put(key, entry);
+		if (!root.add(entry)) {
+			entries.remove(key);
+			due.add(key);
+		}
+	}
+
+	public boolean cancel(K key) {
+		Entry<K> entry = entries.remove(key);
+		if (entry == null) {
+			return due.remove(key);
+		}
+		if (entry.bucket != null) {
+			entry.bucket.entries.remove(entry);
+			entry.bucket = null;
+		}
+		return true;
+	}
+
+	public boolean contains(K key) {
+		return entries.containsKey(key) || due.contains(key);
+	}
+
+	public int size() {
+		return entries.size() + due.size();
+	}
+
+	public long currentTime() {
+		return root.currentTime;
+	}
+
+	/**
+	 * Earliest instant at which {@link #advance(long)} will return work, or
+	 * {@link Long#MAX_VALUE} when the wheel is empty.
+	 */
+	public long nextExpiration() {
+		if (!due.isEmpty()) {
+			return root.currentTime;
+		}
+		Bucket<K> next = pendingBuckets.peek();
+		return next != null ? next.deadline : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Moves the clock to {@code nowMs} and returns every key that expired,
+	 * in expiration order per bucket.
+	 */
+	public List<K> advance(long nowMs) {
+		List<K> expired = new ArrayList<>(due);
+		due.clear();
+
+		Bucket<K> bucket = pendingBuckets.peek();
+		while (bucket != null && bucket.deadline <= nowMs) {
+			pendingBuckets.poll();
+			root.advanceClock(bucket.expiration);
+			List<Entry<K>> flushed = new ArrayList<>(bucket.entries);
+			bucket.entries.clear();
+			bucket.expiration = -1;
+			bucket.deadline = -1;
+			for (Entry<K> entry : flushed) {
+				entry.bucket = null;
+				if (entry.expirationMs <= nowMs || !root.add(entry)) {
+					entries.remove(entry.key);
+					expired.add(entry.key);
+				}
+			}
+			bucket = pendingBuckets.peek();
+		}
+		root.advanceClock(nowMs);
+		return expired;
+	}
+
+	private static final class Entry<K> {
+		private final K key;
+		private final long expirationMs;
+		private Bucket<K> bucket;
+
+		private Entry(K key, long expirationMs) {
+			this.key = key;
+			this.expirationMs = expirationMs;
+		}
+	}
+
+	private static final class Bucket<K> {
+		private final Set<Entry<K>> entries = new LinkedHashSet<>();
+		private long expiration = -1;
+		private long deadline = -1;
+	}
+
+	private final class Level {
+		private final long tickMs;
+		private final int wheelSize;
+		private final long interval;
+		private final List<Bucket<K>> buckets;
+		private long currentTime;
+		private Level overflow;
+
+		private Level(long tickMs, int wheelSize, long startMs) {
+			this.tickMs = tickMs;
+			this.wheelSize = wheelSize;
+			this.interval = tickMs * wheelSize;
+			this.buckets = new ArrayList<>(wheelSize);
+			for (int i = 0; i < wheelSize; i++) {
+				buckets.add(new Bucket<>());
+			}
+			this.currentTime = startMs - (startMs % tickMs);
+		}
+
+		private boolean add(Entry<K> entry) {
+			long expiration = entry.expirationMs;
+			if (expiration < currentTime) {
+				return false;
+			}
+			if (expiration < currentTime + interval) {
+				long virtualId = expiration / tickMs;
+				Bucket<K> bucket = buckets.get((int) (virtualId % wheelSize));
+				bucket.entries.add(entry);
+				entry.bucket = bucket;
+				long bucketExpiration = virtualId * tickMs;
+				if (bucket.expiration != bucketExpiration) {
+					pendingBuckets.remove(bucket);
+					bucket.expiration = bucketExpiration;
+					bucket.deadline = this == root ? bucketExpiration + tickMs : bucketExpiration;
+					pendingBuckets.offer(bucket);
+				}
+				return true;
+			}
+			if (overflow == null) {
+				overflow = new Level(interval, wheelSize, currentTime);
+			}
+			return overflow.add(entry);
+		}
+
+		private void advanceClock(long timeMs) {
+			if (timeMs >= currentTime + tickMs) {
+				currentTime = timeMs - (timeMs % tickMs);
+				if (overflow != null) {
+					overflow.advanceClock(currentTime);
+				}
+			}
+		}
+	}
+}
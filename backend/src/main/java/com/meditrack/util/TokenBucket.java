@@ -0,0 +1,81 @@
+package com.meditrack.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking token-bucket rate limiter. Holds up to {@code capacity} tokens and
+ * refills {@code permitsPerSecond} per second; {@link #acquire()} reserves a
+ * token and sleeps until it is available, so concurrent callers are spaced
+ * out evenly once the burst is spent. {@link #acquireLeaving(int)} is for
+ * low-priority callers: it never goes into debt and leaves the given number
+ * of tokens for {@link #acquire()} callers.
+ */
+public class TokenBucket {
+
+	private final double capacity;
+	private final double nanosPerToken;
+	private double tokens;
+	private long lastRefillNanos;
+
+	public TokenBucket(double permitsPerSecond, int capacity) {
+		if (permitsPerSecond <= 0 || capacity <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond and capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+		this.tokens = capacity;
+		this.lastRefillNanos = System.nanoTime();
+	}
+
+	public void acquire() throws InterruptedException {
+		long waitNanos = reserve();
+		if (waitNanos > 0) {
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	/**
+	 * Takes a token once more than {@code reserved} tokens are available,
+	 * waiting as long as necessary.
+	 */
+	public void acquireLeaving(int reserved) throws InterruptedException {
+		while (true) {
+			long waitNanos = tryReserveAbove(reserved);
+			if (waitNanos == 0) {
+				return;
+			}
+			TimeUnit.NANOSECONDS.sleep(waitNanos);
+		}
+	}
+
+	/**
+	 * Takes a token, going into debt if none is left, and returns how long the
+	 * caller has to wait before the token is actually available.
+	 */
+	private synchronized long reserve() {
+		long now = System.nanoTime();
+		refill(now);
+		tokens -= 1;
+		return tokens >= 0 ? 0 : (long) (-tokens * nanosPerToken);
+	}
+
+	/**
+	 * Takes a token if that leaves at least {@code reserved}; otherwise
+	 * returns how long until it would.
+	 */
+	private synchronized long tryReserveAbove(int reserved) {
+		long now = System.nanoTime();
+		refill(now);
+		double needed = reserved + 1 - tokens;
+		if (needed <= 0) {
+			tokens -= 1;
+			return 0;
+		}
+		return Math.max(1, (long) (needed * nanosPerToken));
+	}
+
+	private void refill(long now) {
+		tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+		lastRefillNanos = now;
+	}
+}
@@ -0,0 +1,40 @@
+package com.meditrack.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A clock that only moves when told to, so a simulation can step through
+ * days of reminder scheduling as fast as the database allows.
+ */
+public class VirtualClock extends Clock {
+
+	private final ZoneId zone;
+	private volatile Instant instant;
+
+	public VirtualClock(Instant instant, ZoneId zone) {
+		this.instant = instant;
+		this.zone = zone;
+	}
+
+	public void set(LocalDateTime time) {
+		instant = time.atZone(zone).toInstant();
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return zone;
+	}
+
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return zone.equals(this.zone) ? this : new VirtualClock(instant, zone);
+	}
+
+	@Override
+	public Instant instant() {
+		return instant;
+	}
+}
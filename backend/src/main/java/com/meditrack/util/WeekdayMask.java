@@ -0,0 +1,78 @@
+package com.meditrack.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Days of the week a reminder fires on, packed into the low 7 bits of an int
+ * (bit 0 = Sunday ... bit 6 = Saturday, matching the day numbers used by the
+ * API). An empty mask means every day.
+ */
+public final class WeekdayMask {
+
+	public static final int EVERY_DAY = 0x7F;
+
+	private WeekdayMask() {
+	}
+
+	/**
+	 * Day number (0 = Sunday ... 6 = Saturday) for an English day name, or -1
+	 * if the name is not recognised.
+	 */
+	public static int dayNumber(String dayName) {
+		if (dayName == null) {
+			return -1;
+		}
+		try {
+			return DayOfWeek.valueOf(dayName.trim().toUpperCase(Locale.ROOT)).getValue() % 7;
+		} catch (IllegalArgumentException e) {
+			return -1;
+		}
+	}
+
+	public static int fromDayNames(Collection<String> dayNames) {
+		int mask = 0;
+		if (dayNames != null) {
+			for (String dayName : dayNames) {
+				int day = dayNumber(dayName);
+				if (day >= 0) {
+					mask |= 1 << day;
+				}
+			}
+		}
+		return mask;
+	}
+
+	public static List<Integer> toDayNumbers(int mask) {
+		List<Integer> days = new ArrayList<>(Integer.bitCount(mask));
+		for (int remaining = mask & EVERY_DAY; remaining != 0; remaining &= remaining - 1) {
+			days.add(Integer.numberOfTrailingZeros(remaining));
+		}
+		return days;
+	}
+
+	/**
+	 * First occurrence of {@code time} on one of the mask's days that is
+	 * strictly after {@code after}. Rotating the mask so tomorrow lands on
+	 * bit 0 turns "next matching day" into a trailing-zero count.
+	 */
+	public static LocalDateTime nextOccurrence(int mask, LocalTime time, LocalDateTime after) {
+		int days = (mask & EVERY_DAY) == 0 ? EVERY_DAY : mask & EVERY_DAY;
+		LocalDate date = after.toLocalDate();
+		int today = date.getDayOfWeek().getValue() % 7;
+
+		if ((days & (1 << today)) != 0 && time.isAfter(after.toLocalTime())) {
+			return LocalDateTime.of(date, time);
+		}
+
+		int shift = (today + 1) % 7;
+		int rotated = ((days >>> shift) | (days << (7 - shift))) & EVERY_DAY;
+		return LocalDateTime.of(date.plusDays(Integer.numberOfTrailingZeros(rotated) + 1L), time);
+	}
+}
@@ -0,0 +1,96 @@
+package com.meditrack.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bounded in-memory queue split into lanes, lane 0 being the most urgent.
+ * {@link #take(int)} picks among the non-empty lanes by smooth weighted
+ * round robin, so every lane is served in proportion to its weight while it
+ * has work and no lane is starved. Callers can restrict a take to the most
+ * urgent lanes, which lets some consumers be reserved for them.
+ */
+public class WeightedLanes<T> {
+
+	private final List<ArrayDeque<T>> lanes;
+	private final int[] weights;
+	private final int[] capacities;
+	private final int[] credits;
+
+	public WeightedLanes(int[] weights, int[] capacities) {
+		if (weights.length != capacities.length) {
+			throw new IllegalArgumentException("One weight and one capacity per lane required");
+		}
+		this.lanes = new ArrayList<>(weights.length);
+		for (int i = 0; i < weights.length; i++) {
+			if (weights[i] <= 0 || capacities[i] <= 0) {
+				throw new IllegalArgumentException("Lane weights and capacities must be positive");
+			}
+			lanes.add(new ArrayDeque<>());
+		}
+		this.weights = weights.clone();
+		this.capacities = capacities.clone();
+		this.credits = new int[weights.length];
+	}
+
+	public synchronized int remainingCapacity(int lane) {
+		return capacities[lane] - lanes.get(lane).size();
+	}
+
+	public synchronized int size() {
+		int size = 0;
+		for (ArrayDeque<T> lane : lanes) {
+			size += lane.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Adds the items to a lane; the caller checks {@link #remainingCapacity}
+	 * first.
+	 */
+	public synchronized void addAll(int lane, Collection<? extends T> items) {
+		if (items.size() > remainingCapacity(lane)) {
+			throw new IllegalStateException("Lane " + lane + " is full");
+		}
+		lanes.get(lane).addAll(items);
+		notifyAll();
+	}
+
+	/**
+	 * Takes the next item from lanes {@code 0..lowestLane}, blocking until
+	 * one of them has an item.
+	 */
+	public synchronized T take(int lowestLane) throws InterruptedException {
+		while (true) {
+			int lane = pick(lowestLane);
+			if (lane >= 0) {
+				return lanes.get(lane).poll();
+			}
+			wait();
+		}
+	}
+
+	private int pick(int lowestLane) {
+		int best = -1;
+		int total = 0;
+		for (int i = 0; i <= lowestLane; i++) {
+			if (lanes.get(i).isEmpty()) {
+				// An idle lane does not bank credit for later
+				credits[i] = 0;
+				continue;
+			}
+			credits[i] += weights[i];
+			total += weights[i];
+			if (best < 0 || credits[i] > credits[best]) {
+				best = i;
+			}
+		}
+		if (best >= 0) {
+			credits[best] -= total;
+		}
+		return best;
+	}
+}
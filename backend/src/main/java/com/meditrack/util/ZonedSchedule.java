@@ -0,0 +1,65 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.User;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Reminder times across time zones. Fire times are stored and compared as
+ * UTC, the zone the application runs in; a reminder's time and days are
+ * wall-clock values in the zone of the user who owns it.
+ */
+public final class ZonedSchedule {
+
+	private ZonedSchedule() {
+	}
+
+	/**
+	 * The user's zone, or UTC if the stored one is not known to this JVM.
+	 */
+	public static ZoneId zoneOf(User user) {
+		ZoneId zone = parse(user.getTimeZone());
+		return zone != null ? zone : ZoneOffset.UTC;
+	}
+
+	/**
+	 * Parses an IANA zone id such as {@code Europe/Berlin}; null if it is not
+	 * one. Fixed offsets are refused since they do not follow DST.
+	 */
+	public static ZoneId parse(String id) {
+		return id != null && ZoneId.getAvailableZoneIds().contains(id) ? ZoneId.of(id) : null;
+	}
+
+	/**
+	 * UTC time of a wall-clock time in {@code zone}. A time skipped by a DST
+	 * change moves forward by the length of the gap; a time that occurs twice
+	 * resolves to the earlier one.
+	 */
+	public static LocalDateTime toUtc(LocalDateTime local, ZoneId zone) {
+		return local.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+	}
+
+	public static LocalDateTime toLocal(LocalDateTime utc, ZoneId zone) {
+		return utc.atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+	}
+
+	/**
+	 * First occurrence of {@code time} in {@code zone} on one of the mask's
+	 * days that is strictly after {@code afterUtc}, as UTC. Each occurrence is
+	 * converted with the offset in force on its own date, so a DST change
+	 * needs no re-planning.
+	 */
+	public static LocalDateTime nextOccurrence(int mask, LocalTime time, LocalDateTime afterUtc, ZoneId zone) {
+		LocalDateTime local = WeekdayMask.nextOccurrence(mask, time, toLocal(afterUtc, zone));
+		LocalDateTime utc = toUtc(local, zone);
+		// The hour repeated when clocks go back must not fire a dose twice
+		while (!utc.isAfter(afterUtc)) {
+			local = WeekdayMask.nextOccurrence(mask, time, local);
+			utc = toUtc(local, zone);
+		}
+		return utc;
+	}
+}
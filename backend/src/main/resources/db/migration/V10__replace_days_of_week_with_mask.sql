@@ -0,0 +1,15 @@
+-- Days of the week as a 7-bit mask: bit 0 = Sunday ... bit 6 = Saturday.
+-- 0 keeps the old meaning of an empty array: every day.
+ALTER TABLE medication_reminders ADD COLUMN days_mask SMALLINT NOT NULL DEFAULT 0;
+
+UPDATE medication_reminders
+SET days_mask = COALESCE((
+    SELECT bit_or(1 << day)
+    FROM unnest(days_of_week) AS day
+    WHERE day BETWEEN 0 AND 6
+), 0)
+WHERE days_of_week IS NOT NULL;
+
+ALTER TABLE medication_reminders ADD CONSTRAINT check_days_mask CHECK (days_mask BETWEEN 0 AND 127);
+
+ALTER TABLE medication_reminders DROP COLUMN days_of_week;
@@ -0,0 +1,15 @@
+-- Upcoming occurrences of every active reminder, materialized a rolling
+-- number of occurrences ahead so range queries are a single index scan
+CREATE TABLE reminder_occurrences (
+    id BIGSERIAL PRIMARY KEY,
+    reminder_id BIGINT REFERENCES medication_reminders(id) ON DELETE CASCADE NOT NULL,
+    user_id BIGINT REFERENCES users(id) ON DELETE CASCADE NOT NULL,
+    scheduled_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_reminder_occurrences UNIQUE (reminder_id, scheduled_at)
+);
+
+CREATE INDEX idx_reminder_occurrences_user_scheduled ON reminder_occurrences(user_id, scheduled_at);
+CREATE INDEX idx_reminder_occurrences_scheduled ON reminder_occurrences(scheduled_at);
+
+-- Last occurrence materialized for the reminder; NULL until the first run
+ALTER TABLE medication_reminders ADD COLUMN occurrences_until TIMESTAMP;
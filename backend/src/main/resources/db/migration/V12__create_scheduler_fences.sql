@@ -0,0 +1,9 @@
+-- Fencing token per cluster-singleton job, incremented by every new leader.
+-- A leader whose token is lower than the stored one has been superseded and
+-- must not write.
+CREATE TABLE scheduler_fences (
+    name VARCHAR(100) PRIMARY KEY,
+    token BIGINT NOT NULL,
+    holder VARCHAR(100),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
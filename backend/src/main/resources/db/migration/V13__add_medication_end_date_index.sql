@@ -0,0 +1,4 @@
+-- The nightly expiry sweep looks up medications that have ended; most
+-- medications have no end date and stay out of the index
+CREATE INDEX idx_medications_end_date ON medications(end_date)
+    WHERE end_date IS NOT NULL;
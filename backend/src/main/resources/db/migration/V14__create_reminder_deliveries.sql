@@ -0,0 +1,36 @@
+-- Append-only history of reminder delivery attempts, one row per reminder
+-- and attempt (digests add a row for every reminder they carried). Rows are
+-- never updated; the table is range-partitioned by month so retention drops
+-- whole partitions instead of deleting rows. No foreign keys: history
+-- outlives deleted reminders and cleaned-up outbox rows. A dose skipped
+-- without any delivery attempt (e.g. too late after an outage) is recorded
+-- as MISSED with no outbox message or channel.
+CREATE TABLE reminder_deliveries (
+    id BIGSERIAL,
+    reminder_id BIGINT NOT NULL,
+    outbox_id BIGINT,
+    channel VARCHAR(10),
+    outcome VARCHAR(10) NOT NULL,
+    attempt INTEGER NOT NULL,
+    latency_ms INTEGER NOT NULL,
+    error VARCHAR(500),
+    delivered_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id, delivered_at),
+    CONSTRAINT check_delivery_outcome CHECK (outcome IN ('SENT', 'RETRY', 'FAILED', 'MISSED'))
+) PARTITION BY RANGE (delivered_at);
+
+CREATE INDEX idx_reminder_deliveries_reminder ON reminder_deliveries(reminder_id, delivered_at);
+
+-- Partitions for the current and next month; the application creates later
+-- ones ahead of time (ReminderDeliveryLogService)
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    FOR i IN 0..1 LOOP
+        month_start := (date_trunc('month', CURRENT_DATE) + make_interval(months => i))::date;
+        EXECUTE format('CREATE TABLE %I PARTITION OF reminder_deliveries FOR VALUES FROM (%L) TO (%L)',
+                       'reminder_deliveries_' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
@@ -0,0 +1,6 @@
+-- When the patient last confirmed taking a dose
+ALTER TABLE medication_reminders ADD COLUMN last_acknowledged_at TIMESTAMP;
+
+-- The missed-dose sweep looks for sent reminders past their grace window
+CREATE INDEX idx_medication_reminders_sent ON medication_reminders(last_sent_at)
+    WHERE status = 'SENT';
@@ -0,0 +1,13 @@
+-- Dispatch lane of a notification: AUTH (OTPs), ESCALATION or ROUTINE
+-- reminders. Stored by name like every other enum column, so reordering
+-- NotificationOutbox.Priority cannot change stored rows. Each lane is claimed
+-- separately, so it gets its own ready index.
+ALTER TABLE notification_outbox ADD COLUMN priority VARCHAR(20) NOT NULL DEFAULT 'ROUTINE';
+ALTER TABLE notification_outbox ADD CONSTRAINT check_outbox_priority
+    CHECK (priority IN ('AUTH', 'ESCALATION', 'ROUTINE'));
+
+UPDATE notification_outbox SET priority = 'AUTH' WHERE idempotency_key LIKE 'otp:%';
+UPDATE notification_outbox SET priority = 'ESCALATION' WHERE idempotency_key LIKE 'escalation:%';
+
+DROP INDEX idx_notification_outbox_ready;
+CREATE INDEX idx_notification_outbox_ready ON notification_outbox(priority, available_at) WHERE status = 'PENDING';
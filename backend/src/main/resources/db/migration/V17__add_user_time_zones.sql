@@ -0,0 +1,74 @@
+-- IANA time zone of each account. Reminder times and days are wall-clock
+-- values in the owner's zone; fire times and all other timestamps are UTC
+-- from here on, so the one next_reminder_at index serves every zone.
+ALTER TABLE users ADD COLUMN time_zone VARCHAR(64) NOT NULL DEFAULT '${default_time_zone}';
+
+-- Re-planning after a DST change selects one zone's reminders
+CREATE INDEX idx_users_time_zone ON users(time_zone);
+
+-- Every timestamp written so far is in the server's zone; move them all to
+-- UTC, audit and history columns included, so the database holds one zone.
+-- DATE columns (birth, record, start and end dates) are calendar dates and
+-- stay as they are. The updated_at triggers are paused so the conversion
+-- does not overwrite the values it converts.
+DO $$
+BEGIN
+    IF '${default_time_zone}' <> 'UTC' THEN
+        ALTER TABLE users DISABLE TRIGGER update_users_updated_at;
+        ALTER TABLE family_members DISABLE TRIGGER update_family_members_updated_at;
+        ALTER TABLE health_records DISABLE TRIGGER update_health_records_updated_at;
+        ALTER TABLE medications DISABLE TRIGGER update_medications_updated_at;
+        ALTER TABLE medication_reminders DISABLE TRIGGER update_medication_reminders_updated_at;
+
+        UPDATE users SET
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at)),
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+
+        UPDATE family_members SET
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at)),
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+
+        UPDATE health_records SET
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at)),
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+
+        UPDATE medications SET
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at)),
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+
+        UPDATE medication_reminders SET
+            next_reminder_at = timezone('UTC', timezone('${default_time_zone}', next_reminder_at)),
+            last_sent_at = timezone('UTC', timezone('${default_time_zone}', last_sent_at)),
+            last_acknowledged_at = timezone('UTC', timezone('${default_time_zone}', last_acknowledged_at)),
+            claimed_until = timezone('UTC', timezone('${default_time_zone}', claimed_until)),
+            occurrences_until = timezone('UTC', timezone('${default_time_zone}', occurrences_until)),
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at)),
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+
+        ALTER TABLE users ENABLE TRIGGER update_users_updated_at;
+        ALTER TABLE family_members ENABLE TRIGGER update_family_members_updated_at;
+        ALTER TABLE health_records ENABLE TRIGGER update_health_records_updated_at;
+        ALTER TABLE medications ENABLE TRIGGER update_medications_updated_at;
+        ALTER TABLE medication_reminders ENABLE TRIGGER update_medication_reminders_updated_at;
+
+        UPDATE notification_outbox SET
+            available_at = timezone('UTC', timezone('${default_time_zone}', available_at)),
+            locked_until = timezone('UTC', timezone('${default_time_zone}', locked_until)),
+            next_reminder_at = timezone('UTC', timezone('${default_time_zone}', next_reminder_at)),
+            sent_at = timezone('UTC', timezone('${default_time_zone}', sent_at)),
+            created_at = timezone('UTC', timezone('${default_time_zone}', created_at));
+
+        UPDATE notification_outbox_reminders SET
+            next_reminder_at = timezone('UTC', timezone('${default_time_zone}', next_reminder_at));
+
+        UPDATE reminder_occurrences SET
+            scheduled_at = timezone('UTC', timezone('${default_time_zone}', scheduled_at));
+
+        -- Rows may move to the neighbouring monthly partition
+        UPDATE reminder_deliveries SET
+            delivered_at = timezone('UTC', timezone('${default_time_zone}', delivered_at));
+
+        UPDATE scheduler_fences SET
+            updated_at = timezone('UTC', timezone('${default_time_zone}', updated_at));
+    END IF;
+END $$;
@@ -0,0 +1,5 @@
+-- The dashboard reads each user's most recent health records per family
+-- member; the composite index serves those reads in date order and still
+-- covers lookups by family member alone
+CREATE INDEX idx_health_records_member_recorded ON health_records(family_member_id, recorded_date DESC, id DESC);
+DROP INDEX idx_health_records_family_member_id;
@@ -0,0 +1,22 @@
+-- Per-user dashboard counts, kept up to date by the services that create
+-- and delete the counted rows and repaired by a nightly reconciliation
+CREATE TABLE user_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    total_members BIGINT NOT NULL DEFAULT 0,
+    total_medications BIGINT NOT NULL DEFAULT 0,
+    total_health_records BIGINT NOT NULL DEFAULT 0,
+    total_reminders BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO user_stats (user_id, total_members, total_medications, total_health_records, total_reminders)
+SELECT u.id,
+       (SELECT COUNT(*) FROM family_members fm WHERE fm.user_id = u.id),
+       (SELECT COUNT(*) FROM medications m
+            JOIN family_members fm ON fm.id = m.family_member_id WHERE fm.user_id = u.id),
+       (SELECT COUNT(*) FROM health_records hr
+            JOIN family_members fm ON fm.id = hr.family_member_id WHERE fm.user_id = u.id),
+       (SELECT COUNT(*) FROM medication_reminders r
+            JOIN medications m ON m.id = r.medication_id
+            JOIN family_members fm ON fm.id = m.family_member_id WHERE fm.user_id = u.id)
+FROM users u;
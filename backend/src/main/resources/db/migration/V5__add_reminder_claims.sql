@@ -0,0 +1,4 @@
+-- Lease columns for claim-based reminder processing across replicas.
+-- A row is claimable when it is due and its lease is missing or expired.
+ALTER TABLE medication_reminders ADD COLUMN claimed_by VARCHAR(100);
+ALTER TABLE medication_reminders ADD COLUMN claimed_until TIMESTAMP;
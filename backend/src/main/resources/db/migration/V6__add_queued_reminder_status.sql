@@ -0,0 +1,6 @@
+-- QUEUED: reminder handed to the notification dispatcher, delivery not yet recorded
+ALTER TABLE medication_reminders DROP CONSTRAINT check_reminder_status;
+ALTER TABLE medication_reminders ADD CONSTRAINT check_reminder_status
+    CHECK (status IN ('PENDING', 'QUEUED', 'SENT', 'COMPLETED', 'MISSED'));
+
+CREATE INDEX idx_medication_reminders_queued ON medication_reminders(updated_at) WHERE status = 'QUEUED';
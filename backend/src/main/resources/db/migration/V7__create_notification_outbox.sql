@@ -0,0 +1,25 @@
+-- Notifications to send, written in the same transaction as the state change
+-- that caused them and drained by the notification relay.
+CREATE TABLE notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    channel VARCHAR(10) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255),
+    body TEXT NOT NULL,
+    reminder_id BIGINT REFERENCES medication_reminders(id) ON DELETE SET NULL,
+    next_reminder_at TIMESTAMP,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    locked_until TIMESTAMP,
+    last_error TEXT,
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT check_outbox_channel CHECK (channel IN ('SMS', 'EMAIL')),
+    CONSTRAINT check_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+CREATE INDEX idx_notification_outbox_ready ON notification_outbox(available_at) WHERE status = 'PENDING';
+CREATE INDEX idx_notification_outbox_sending ON notification_outbox(locked_until) WHERE status = 'SENDING';
+CREATE INDEX idx_notification_outbox_sent_at ON notification_outbox(sent_at) WHERE status = 'SENT';
@@ -0,0 +1,17 @@
+-- Per-user digest window in minutes; NULL or 0 sends every reminder on its own
+ALTER TABLE users ADD COLUMN reminder_digest_minutes INTEGER;
+ALTER TABLE users ADD CONSTRAINT check_reminder_digest_minutes
+    CHECK (reminder_digest_minutes IS NULL OR reminder_digest_minutes BETWEEN 0 AND 1440);
+
+-- Reminders covered by a digest notification, written back once it is delivered
+CREATE TABLE notification_outbox_reminders (
+    outbox_id BIGINT REFERENCES notification_outbox(id) ON DELETE CASCADE NOT NULL,
+    reminder_id BIGINT REFERENCES medication_reminders(id) ON DELETE CASCADE NOT NULL,
+    next_reminder_at TIMESTAMP,
+    PRIMARY KEY (outbox_id, reminder_id)
+);
+
+-- What an outbox row carries: a single notification, or a digest whose
+-- reminders are linked through notification_outbox_reminders.
+ALTER TABLE notification_outbox ADD COLUMN kind VARCHAR(20) NOT NULL DEFAULT 'MESSAGE';
+ALTER TABLE notification_outbox ADD CONSTRAINT check_outbox_kind CHECK (kind IN ('MESSAGE', 'DIGEST'));
@@ -0,0 +1,4 @@
+-- Keyset scans over due reminders only touch pending rows; id breaks ties
+-- between reminders due at the same instant
+CREATE INDEX idx_medication_reminders_pending_due ON medication_reminders(next_reminder_at, id)
+    WHERE status = 'PENDING';
@@ -0,0 +1,155 @@
+package com.meditrack.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedJobQueueTest {
+
+	private static final long VISIBILITY_MS = 60_000;
+	private static final long RETRY_BASE_MS = 30_000;
+
+	@Mock
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@Mock
+	private ObjectProvider<DelayedJobHandler> handlers;
+
+	private final List<ScriptCall> calls = new ArrayList<>();
+	private List<String> claimReply = List.of();
+	private DelayedJobQueue queue;
+
+	@BeforeEach
+	void setUp() {
+		queue = new DelayedJobQueue(redisTemplate, handlers);
+		ReflectionTestUtils.setField(queue, "batchSize", 100);
+		ReflectionTestUtils.setField(queue, "visibilityMs", VISIBILITY_MS);
+		ReflectionTestUtils.setField(queue, "maxAttempts", 3);
+		ReflectionTestUtils.setField(queue, "retryBaseMs", RETRY_BASE_MS);
+		lenient().when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class),
+				any(RedisSerializer.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+					RedisScript<?> script = invocation.getArgument(0);
+					List<String> keys = invocation.getArgument(3);
+					List<Object> args = List.of(invocation.getRawArguments()).subList(4, invocation.getRawArguments().length);
+					ScriptCall call = new ScriptCall(script.getScriptAsString(), keys, flatten(args));
+					calls.add(call);
+					return call.is("ZRANGEBYSCORE") ? claimReply : 1L;
+				});
+	}
+
+	@Test
+	void schedulesAtTheUtcEpochMillisOfTheDueTime() {
+		queue.schedule("escalation", "42", "payload", LocalDateTime.of(2024, 1, 1, 0, 0));
+
+		ScriptCall call = calls.get(0);
+		assertThat(call.keys()).startsWith("jobs:{escalation}", "jobs:{escalation}:payloads");
+		assertThat(call.args()).containsExactly("42", "1704067200000", "payload");
+	}
+
+	@Test
+	void completesAJobOnceItsHandlerSucceeds() {
+		claimReply = List.of("42", "payload", "1");
+		List<String> handled = new ArrayList<>();
+
+		int claimed = queue.runDue(handler((jobId, payload) -> handled.add(jobId + "=" + payload)));
+
+		assertThat(claimed).isEqualTo(1);
+		assertThat(handled).containsExactly("42=payload");
+		String lease = leaseOf(calls.get(0));
+		assertThat(calls.get(1).is("LPUSH")).isTrue();
+		assertThat(calls.get(1).args()).containsExactly("42", lease, "0");
+	}
+
+	@Test
+	void retriesAFailedJobWithBackoffWhileItHoldsTheLease() {
+		claimReply = List.of("42", "payload", "2");
+		long before = System.currentTimeMillis();
+
+		queue.runDue(handler((jobId, payload) -> {
+			throw new IllegalStateException("provider down");
+		}));
+
+		ScriptCall retry = calls.get(1);
+		assertThat(retry.is("LPUSH")).isFalse();
+		assertThat(retry.args().subList(0, 2)).containsExactly("42", leaseOf(calls.get(0)));
+		// Second attempt: twice the base delay
+		assertThat(Long.parseLong(retry.args().get(2))).isBetween(before + 2 * RETRY_BASE_MS,
+				System.currentTimeMillis() + 2 * RETRY_BASE_MS);
+	}
+
+	@Test
+	void movesAJobToTheDeadListAfterTheLastAttempt() {
+		claimReply = List.of("42", "payload", "3");
+
+		queue.runDue(handler((jobId, payload) -> {
+			throw new IllegalStateException("provider down");
+		}));
+
+		assertThat(calls.get(1).is("LPUSH")).isTrue();
+		assertThat(calls.get(1).args()).containsExactly("42", leaseOf(calls.get(0)), "1");
+	}
+
+	// The claim pushes due jobs out to now + visibility-ms
+	private static String leaseOf(ScriptCall claim) {
+		assertThat(claim.is("ZRANGEBYSCORE")).isTrue();
+		long lease = Long.parseLong(claim.args().get(2));
+		assertThat(lease - Long.parseLong(claim.args().get(0))).isEqualTo(VISIBILITY_MS);
+		return claim.args().get(2);
+	}
+
+	private static List<String> flatten(List<Object> args) {
+		List<String> flat = new ArrayList<>();
+		for (Object arg : args) {
+			if (arg instanceof Object[] array) {
+				for (Object element : array) {
+					flat.add(String.valueOf(element));
+				}
+			} else {
+				flat.add(String.valueOf(arg));
+			}
+		}
+		return flat;
+	}
+
+	private static DelayedJobHandler handler(Job job) {
+		return new DelayedJobHandler() {
+			@Override
+			public String type() {
+				return "escalation";
+			}
+
+			@Override
+			public void handle(String jobId, String payload) {
+				job.run(jobId, payload);
+			}
+		};
+	}
+
+	private interface Job {
+		void run(String jobId, String payload);
+	}
+
+	private record ScriptCall(String script, List<String> keys, List<String> args) {
+
+		boolean is(String command) {
+			return script.contains(command);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.meditrack.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderElectionServiceTest {
+
+	private static final String JOB = "reminder-expiry";
+
+	@Mock
+	private RedisTemplate<String, Object> redisTemplate;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	// Lease keys as Redis holds them; fencing tokens as scheduler_fences does
+	private final Map<String, String> redis = new HashMap<>();
+	private final Map<String, Long> fences = new HashMap<>();
+
+	private LeaderElectionService leaderElection;
+
+	@BeforeEach
+	void setUp() {
+		leaderElection = new LeaderElectionService(redisTemplate, jdbcTemplate);
+		ReflectionTestUtils.setField(leaderElection, "enabled", true);
+		ReflectionTestUtils.setField(leaderElection, "nodeId", "node-a");
+		ReflectionTestUtils.setField(leaderElection, "leaseMs", 15000L);
+		lenient().when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+				.thenAnswer(invocation -> {
+					String script = invocation.<RedisScript<?>>getArgument(0).getScriptAsString();
+					String key = invocation.<List<String>>getArgument(1).get(0);
+					Object[] args = invocation.getArguments();
+					return runScript(script, key, List.of(args).subList(2, args.length));
+				});
+		lenient().when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq(JOB), eq("node-a")))
+				.thenAnswer(invocation -> fences.merge(JOB, 1L, Long::sum));
+		lenient().when(jdbcTemplate.update(anyString(), eq("node-a"), eq(JOB), any()))
+				.thenAnswer(invocation -> fences.get(JOB).equals(invocation.getArgument(3)) ? 1 : 0);
+	}
+
+	@Test
+	void newLeaderDrawsTheNextTokenFromTheDatabase() {
+		fences.put(JOB, 41L);
+
+		LeaderElectionService.Lease lease = leaderElection.lead(JOB);
+
+		assertThat(lease).isNotNull();
+		assertThat(lease.token()).isEqualTo(42L);
+		assertThat(redis).containsEntry("leader:" + JOB, "node-a|42");
+	}
+
+	@Test
+	void leaderKeepsItsTokenOnLaterRuns() {
+		fences.put(JOB, 41L);
+		leaderElection.lead(JOB);
+
+		assertThat(leaderElection.lead(JOB).token()).isEqualTo(42L);
+		assertThat(fences).containsEntry(JOB, 42L);
+	}
+
+	@Test
+	void jobStillRunsAfterRedisLostItsData() {
+		fences.put(JOB, 41L);
+		leaderElection.lead(JOB);
+
+		redis.clear();
+		LeaderElectionService.Lease lease = leaderElection.lead(JOB);
+
+		assertThat(lease).isNotNull();
+		assertThat(lease.token()).isEqualTo(43L);
+	}
+
+	@Test
+	void anotherNodesLeaseIsLeftAlone() {
+		redis.put("leader:" + JOB, "node-b|7");
+
+		assertThat(leaderElection.lead(JOB)).isNull();
+	}
+
+	@Test
+	void supersededLeaderDoesNotRun() {
+		fences.put(JOB, 41L);
+		leaderElection.lead(JOB);
+
+		// Another node took over while this one was paused and its lease expired
+		fences.put(JOB, 50L);
+
+		assertThat(leaderElection.lead(JOB)).isNull();
+	}
+
+	// Stands in for the acquire and stamp scripts
+	private Long runScript(String script, String key, List<Object> args) {
+		String current = redis.get(key);
+		if (script.contains("'|0'")) {
+			if (current == null) {
+				redis.put(key, args.get(0) + "|0");
+				return 0L;
+			}
+			String[] parts = current.split("\\|");
+			return parts[0].equals(args.get(0)) ? Long.parseLong(parts[1]) : -1L;
+		}
+		if (args.get(0).equals(current)) {
+			redis.put(key, (String) args.get(1));
+			return 1L;
+		}
+		return 0L;
+	}
+}
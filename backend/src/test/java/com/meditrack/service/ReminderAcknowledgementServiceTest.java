@@ -0,0 +1,149 @@
+package com.meditrack.service;
+
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderAcknowledgementServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 10, 12, 0);
+	private static final int CHUNK = 2;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private ReminderDeliveryLogService deliveryLogService;
+
+	@Mock
+	private DashboardCacheService dashboardCache;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private LeaderElectionService leaderElection;
+
+	private ReminderAcknowledgementService acknowledgementService;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		acknowledgementService = new ReminderAcknowledgementService(mock(RedisTemplate.class), jdbcTemplate,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), deliveryLogService, dashboardCache,
+				eventPublisher, leaderElection, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		ReflectionTestUtils.setField(acknowledgementService, "enabled", true);
+		ReflectionTestUtils.setField(acknowledgementService, "graceMinutes", 60L);
+		ReflectionTestUtils.setField(acknowledgementService, "missedChunkSize", CHUNK);
+	}
+
+	@Test
+	void unacknowledgedDoseIsRecordedAsMissedAndItsReminderRearmed() throws Exception {
+		LocalDateTime sentAt = NOW.minusHours(3);
+		LocalDateTime nextAt = NOW.plusHours(21);
+		rearmedRows(List.<Object[]>of(new Object[] {1L, nextAt, sentAt}));
+
+		assertThat(acknowledgementService.rearmUnacknowledged(NOW.minusHours(1))).isEqualTo(1);
+
+		verify(eventPublisher).publishEvent(new ReminderScheduleChangedEvent(1L, nextAt));
+		verify(dashboardCache).onRemindersChanged(List.of(1L));
+		verify(deliveryLogService).appendMissed(List.of(
+				new ReminderDeliveryLogService.MissedDose(1L, "Not acknowledged, sent at " + sentAt)), NOW);
+	}
+
+	@Test
+	void nothingUnacknowledgedRecordsNothing() throws Exception {
+		rearmedRows(List.<Object[]>of());
+
+		assertThat(acknowledgementService.rearmUnacknowledged(NOW.minusHours(1))).isZero();
+
+		verify(eventPublisher, never()).publishEvent(any());
+		verify(deliveryLogService, never()).appendMissed(any(), any());
+	}
+
+	@Test
+	void missedPassWorksThroughFullChunksPastTheGraceWindow() throws Exception {
+		LocalDateTime sentAt = NOW.minusHours(3);
+		rearmedRows(List.<Object[]>of(new Object[] {1L, NOW.plusDays(1), sentAt}, new Object[] {2L, NOW.plusDays(1), sentAt}),
+				List.<Object[]>of(new Object[] {3L, NOW.plusDays(1), sentAt}));
+		when(leaderElection.stillLeading()).thenReturn(true);
+
+		acknowledgementService.markMissed();
+
+		verify(jdbcTemplate, times(2))
+				.query(anyString(), any(RowMapper.class), eq(NOW.minusMinutes(60)), eq(CHUNK));
+		verify(deliveryLogService).appendMissed(List.of(
+				new ReminderDeliveryLogService.MissedDose(3L, "Not acknowledged, sent at " + sentAt)), NOW);
+	}
+
+	@Test
+	void sentRemindersAreRearmedWithAcknowledgementsDisabled() throws Exception {
+		ReflectionTestUtils.setField(acknowledgementService, "enabled", false);
+		LocalDateTime sentAt = NOW.minusHours(3);
+		rearmedRows(List.<Object[]>of(new Object[] {1L, NOW.plusHours(21), sentAt}));
+
+		acknowledgementService.markMissed();
+
+		verify(eventPublisher).publishEvent(new ReminderScheduleChangedEvent(1L, NOW.plusHours(21)));
+		verify(deliveryLogService).appendMissed(List.of(
+				new ReminderDeliveryLogService.MissedDose(1L, "Not acknowledged, sent at " + sentAt)), NOW);
+	}
+
+	/**
+	 * Answers each re-arm statement with the next of {@code chunks}, rows
+	 * given as id, next fire time and sent time.
+	 */
+	@SafeVarargs
+	private void rearmedRows(List<Object[]>... chunks) throws Exception {
+		List<List<ResultSet>> results = new ArrayList<>();
+		for (List<Object[]> chunk : chunks) {
+			List<ResultSet> resultSets = new ArrayList<>();
+			for (Object[] row : chunk) {
+				ResultSet rs = mock(ResultSet.class);
+				when(rs.getLong(1)).thenReturn((Long) row[0]);
+				when(rs.getObject(2, LocalDateTime.class)).thenReturn((LocalDateTime) row[1]);
+				when(rs.getObject(3, LocalDateTime.class)).thenReturn((LocalDateTime) row[2]);
+				resultSets.add(rs);
+			}
+			results.add(resultSets);
+		}
+		int[] call = {0};
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+			RowMapper<?> mapper = invocation.getArgument(1);
+			List<ResultSet> resultSets = results.get(Math.min(call[0]++, results.size() - 1));
+			List<Object> mapped = new ArrayList<>();
+			for (int i = 0; i < resultSets.size(); i++) {
+				mapped.add(mapper.mapRow(resultSets.get(i), i));
+			}
+			return mapped;
+		});
+	}
+}
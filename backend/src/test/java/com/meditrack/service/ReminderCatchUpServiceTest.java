@@ -0,0 +1,209 @@
+package com.meditrack.service;
+
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.event.ReminderScheduleChangedEvent;
+import com.meditrack.repository.MedicationReminderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderCatchUpServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 10, 12, 0);
+	private static final LocalDateTime CUTOFF = NOW.minusHours(2);
+
+	@Mock
+	private MedicationReminderRepository reminderRepository;
+
+	@Mock
+	private ReminderService reminderService;
+
+	@Mock
+	private NotificationDispatcher dispatcher;
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private ReminderOccurrenceService occurrenceService;
+
+	@Mock
+	private ReminderDeliveryLogService deliveryLogService;
+
+	@Mock
+	private DashboardCacheService dashboardCache;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private ReminderCatchUpService catchUpService;
+
+	@BeforeEach
+	void setUp() {
+		catchUpService = new ReminderCatchUpService(reminderRepository, reminderService,
+				mock(ReminderClaimService.class), dispatcher,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), jdbcTemplate, occurrenceService,
+				deliveryLogService, dashboardCache, eventPublisher, Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		ReflectionTestUtils.setField(catchUpService, "maxBatch", 500);
+	}
+
+	@Test
+	void staleDoseMovesToTheNextOccurrenceInTheUsersZoneAndIsRecordedAsMissed() throws Exception {
+		LocalDateTime dueAt = LocalDateTime.of(2024, 1, 9, 7, 0);
+		staleRows(new Object[] {1L, 0, LocalTime.of(8, 0), dueAt, "Europe/Berlin"},
+				new Object[] {2L, 0, LocalTime.of(8, 0), dueAt, "Mars/Olympus"});
+		List<LocalDateTime> written = updatedRows(1, 1);
+		List<MedicationReminder> reminders = List.of(new MedicationReminder(), new MedicationReminder());
+		when(reminderRepository.findWithMedicationByIdIn(List.of(1L, 2L))).thenReturn(reminders);
+
+		assertThat(catchUpService.skipStale(NOW, CUTOFF)).isEqualTo(2);
+
+		// 08:00 in Berlin is 07:00 UTC in winter; an unknown zone counts as UTC
+		LocalDateTime berlin = LocalDateTime.of(2024, 1, 11, 7, 0);
+		LocalDateTime utc = LocalDateTime.of(2024, 1, 11, 8, 0);
+		assertThat(written).containsExactly(berlin, utc);
+		verify(eventPublisher).publishEvent(new ReminderScheduleChangedEvent(1L, berlin));
+		verify(eventPublisher).publishEvent(new ReminderScheduleChangedEvent(2L, utc));
+		verify(occurrenceService).rematerialize(reminders);
+		verify(dashboardCache).onRemindersChanged(List.of(1L, 2L));
+		verify(deliveryLogService).appendMissed(List.of(
+				new ReminderDeliveryLogService.MissedDose(1L, "Not sent, was due at " + dueAt),
+				new ReminderDeliveryLogService.MissedDose(2L, "Not sent, was due at " + dueAt)), NOW);
+	}
+
+	@Test
+	void doseChangedInTheMeantimeIsNeitherMovedNorRecorded() throws Exception {
+		LocalDateTime dueAt = LocalDateTime.of(2024, 1, 9, 7, 0);
+		staleRows(new Object[] {1L, 0, LocalTime.of(8, 0), dueAt, "UTC"},
+				new Object[] {2L, 0, LocalTime.of(8, 0), dueAt, "UTC"});
+		updatedRows(0, 1);
+
+		assertThat(catchUpService.skipStale(NOW, CUTOFF)).isEqualTo(1);
+
+		verify(eventPublisher).publishEvent(any(ReminderScheduleChangedEvent.class));
+		verify(deliveryLogService).appendMissed(List.of(
+				new ReminderDeliveryLogService.MissedDose(2L, "Not sent, was due at " + dueAt)), NOW);
+	}
+
+	@Test
+	void nothingStaleRecordsNothing() throws Exception {
+		staleRows();
+		updatedRows();
+
+		assertThat(catchUpService.skipStale(NOW, CUTOFF)).isZero();
+
+		verify(deliveryLogService, never()).appendMissed(any(), any());
+		verify(occurrenceService, never()).rematerialize(any());
+	}
+
+	@Test
+	void catchUpPausesWhenNoDispatcherDrainsTheOutbox() throws Exception {
+		staleRows();
+		updatedRows();
+		ReflectionTestUtils.setField(catchUpService, "enabled", true);
+		ReflectionTestUtils.setField(catchUpService, "maxUnsent", 1000L);
+		when(reminderRepository.countDue(NOW)).thenReturn(5000L);
+		when(dispatcher.unsent()).thenReturn(1000L);
+
+		assertThat(catchUpService.catchUp(NOW)).isTrue();
+
+		assertThat(catchUpService.getProgress().state()).isEqualTo(ReminderCatchUpService.CatchUpProgress.State.PAUSED);
+		assertThat(catchUpService.getProgress().finishedAt()).isEqualTo(NOW);
+		verifyNoInteractions(reminderService);
+	}
+
+	@Test
+	void outboxWaitGivesUpAtTheDeadline() throws Exception {
+		ReflectionTestUtils.setField(catchUpService, "maxUnsent", 1000L);
+		ReflectionTestUtils.setField(catchUpService, "drainTimeoutSeconds", 0L);
+		when(dispatcher.isRunning()).thenReturn(true);
+		when(dispatcher.unsent()).thenReturn(1000L);
+
+		assertThat(catchUpService.awaitOutboxDrained()).isFalse();
+	}
+
+	@Test
+	void outboxBelowTheLimitNeedsNoWait() throws Exception {
+		ReflectionTestUtils.setField(catchUpService, "maxUnsent", 1000L);
+		when(dispatcher.unsent()).thenReturn(999L);
+
+		assertThat(catchUpService.awaitOutboxDrained()).isTrue();
+	}
+
+	private void staleRows(Object[]... rows) throws Exception {
+		List<ResultSet> resultSets = new ArrayList<>();
+		for (Object[] row : rows) {
+			ResultSet rs = mock(ResultSet.class);
+			when(rs.getLong(1)).thenReturn((Long) row[0]);
+			when(rs.getInt(2)).thenReturn((Integer) row[1]);
+			when(rs.getObject(3, LocalTime.class)).thenReturn((LocalTime) row[2]);
+			when(rs.getObject(4, LocalDateTime.class)).thenReturn((LocalDateTime) row[3]);
+			when(rs.getString(5)).thenReturn((String) row[4]);
+			resultSets.add(rs);
+		}
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+			RowMapper<?> mapper = invocation.getArgument(1);
+			List<Object> mapped = new ArrayList<>();
+			for (int i = 0; i < resultSets.size(); i++) {
+				mapped.add(mapper.mapRow(resultSets.get(i), i));
+			}
+			return mapped;
+		});
+	}
+
+	/**
+	 * Answers the guarded update with one count per row and returns the
+	 * fire times written to the rows that were updated.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<LocalDateTime> updatedRows(int... counts) {
+		List<LocalDateTime> written = new ArrayList<>();
+		when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+				.thenAnswer(invocation -> {
+					List<Object> skips = invocation.getArgument(1);
+					ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+					for (int i = 0; i < skips.size(); i++) {
+						PreparedStatement ps = mock(PreparedStatement.class);
+						setter.setValues(ps, skips.get(i));
+						if (counts[i] > 0) {
+							ArgumentCaptor<Object> nextAt = ArgumentCaptor.forClass(Object.class);
+							verify(ps).setObject(eq(1), nextAt.capture());
+							written.add((LocalDateTime) nextAt.getValue());
+						}
+					}
+					return new int[][] {counts};
+				});
+		return written;
+	}
+}
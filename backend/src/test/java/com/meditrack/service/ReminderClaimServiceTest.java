@@ -0,0 +1,67 @@
+package com.meditrack.service;
+
+import com.meditrack.repository.MedicationReminderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderClaimServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+	@Mock
+	private MedicationReminderRepository reminderRepository;
+
+	@InjectMocks
+	private ReminderClaimService claimService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(claimService, "leaseSeconds", 300L);
+	}
+
+	@Test
+	void batchLeaseRunsForTheConfiguredTime() {
+		ReflectionTestUtils.setField(claimService, "nodeId", "node-a");
+		when(reminderRepository.claimDueBatch("node-a", NOW, NOW.plusMinutes(5), 50)).thenReturn(List.of(1L, 2L));
+
+		assertThat(claimService.claimDueBatch(NOW, 50)).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void singleClaimFailsWhenAnotherNodeHoldsTheLease() {
+		ReflectionTestUtils.setField(claimService, "nodeId", "node-a");
+		when(reminderRepository.claim(7L, "node-a", NOW, NOW.plusMinutes(5))).thenReturn(1);
+		when(reminderRepository.claim(8L, "node-a", NOW, NOW.plusMinutes(5))).thenReturn(0);
+
+		assertThat(claimService.claim(7L, NOW)).isTrue();
+		assertThat(claimService.claim(8L, NOW)).isFalse();
+	}
+
+	@Test
+	void unconfiguredNodeKeepsOneGeneratedOwner() {
+		String owner = claimService.getOwner();
+
+		claimService.claimDueBatch(NOW, 10);
+		claimService.claim(7L, NOW);
+
+		assertThat(owner).isNotBlank();
+		assertThat(claimService.getOwner()).isEqualTo(owner);
+		verify(reminderRepository).claimDueBatch(eq(owner), any(), any(), eq(10));
+		verify(reminderRepository).claim(eq(7L), eq(owner), any(), any());
+	}
+}
@@ -0,0 +1,91 @@
+package com.meditrack.service;
+
+import com.meditrack.dto.MedicationReminderSummaryDto;
+import com.meditrack.entity.FamilyMember;
+import com.meditrack.entity.Medication;
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.entity.ReminderOccurrence;
+import com.meditrack.entity.User;
+import com.meditrack.repository.ReminderOccurrenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderOccurrenceServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 10, 12, 0);
+	private static final LocalDateTime SENT_AT = LocalDateTime.of(2024, 1, 10, 8, 0);
+	private static final LocalDateTime NEXT_AT = LocalDateTime.of(2024, 1, 11, 8, 0);
+
+	@Mock
+	private ReminderOccurrenceRepository occurrenceRepository;
+
+	@Mock
+	private UserService userService;
+
+	private final User user = User.builder().id(1L).build();
+
+	private ReminderOccurrenceService occurrenceService;
+
+	@BeforeEach
+	void setUp() {
+		occurrenceService = new ReminderOccurrenceService(occurrenceRepository, null, null, null, userService, null,
+				Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+		when(userService.getUserById(1L)).thenReturn(user);
+	}
+
+	@Test
+	void sentReminderKeepsItsLaterDosesPending() {
+		MedicationReminder reminder = reminder(MedicationReminder.ReminderStatus.SENT, NEXT_AT);
+		occurrences(reminder, SENT_AT, NEXT_AT, NEXT_AT.plusDays(1));
+
+		List<MedicationReminderSummaryDto> listed = occurrenceService.findOccurrences(1L, NOW.minusDays(1), NOW.plusDays(7), 10);
+
+		assertThat(listed).extracting(MedicationReminderSummaryDto::getStatus)
+				.containsExactly("SENT", "PENDING", "PENDING");
+	}
+
+	@Test
+	void queuedReminderReportsOnlyItsCurrentDoseAsQueued() {
+		MedicationReminder reminder = reminder(MedicationReminder.ReminderStatus.QUEUED, SENT_AT);
+		occurrences(reminder, SENT_AT, NEXT_AT);
+
+		List<MedicationReminderSummaryDto> listed = occurrenceService.findOccurrences(1L, NOW.minusDays(1), NOW.plusDays(7), 10);
+
+		assertThat(listed).extracting(MedicationReminderSummaryDto::getStatus).containsExactly("QUEUED", "PENDING");
+	}
+
+	private void occurrences(MedicationReminder reminder, LocalDateTime... times) {
+		List<ReminderOccurrence> occurrences = Arrays.stream(times)
+				.map(at -> ReminderOccurrence.builder().reminder(reminder).userId(1L).scheduledAt(at).build())
+				.toList();
+		when(occurrenceRepository.findForUserBetween(eq(1L), any(), any(), any(), any())).thenReturn(occurrences);
+	}
+
+	private MedicationReminder reminder(MedicationReminder.ReminderStatus status, LocalDateTime nextAt) {
+		FamilyMember member = FamilyMember.builder().id(2L).firstName("Ada").user(user).build();
+		Medication medication = Medication.builder().id(3L).name("Aspirin").familyMember(member).build();
+		return MedicationReminder.builder()
+				.id(4L)
+				.medication(medication)
+				.reminderTime(LocalTime.of(8, 0))
+				.status(status)
+				.nextReminderAt(nextAt)
+				.build();
+	}
+}
@@ -0,0 +1,139 @@
+package com.meditrack.service;
+
+import com.meditrack.entity.MedicationReminder;
+import com.meditrack.repository.MedicationReminderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReminderServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+	@Mock
+	private MedicationReminderRepository reminderRepository;
+
+	@Mock
+	private ReminderClaimService claimService;
+
+	@Mock
+	private NotificationOutboxService outboxService;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private ReminderService reminderService;
+
+	@Test
+	void reminderLeasedByAnotherNodeIsLeftAlone() {
+		when(claimService.isEnabled()).thenReturn(true);
+		when(claimService.claim(7L, NOW)).thenReturn(false);
+
+		assertThat(reminderService.processReminderById(7L, NOW)).isNull();
+
+		verify(reminderRepository, never()).findWithRecipientById(any());
+		verifyNoInteractions(outboxService);
+	}
+
+	@Test
+	void reminderNoLongerDueGivesItsLeaseBack() {
+		MedicationReminder reminder = MedicationReminder.builder()
+				.id(7L)
+				.status(MedicationReminder.ReminderStatus.PENDING)
+				.nextReminderAt(NOW.plusHours(1))
+				.claimedBy("node-a")
+				.claimedUntil(NOW.plusMinutes(5))
+				.build();
+		when(claimService.isEnabled()).thenReturn(true);
+		when(claimService.claim(7L, NOW)).thenReturn(true);
+		when(reminderRepository.findWithRecipientById(7L)).thenReturn(Optional.of(reminder));
+
+		assertThat(reminderService.processReminderById(7L, NOW)).isNull();
+
+		assertThat(reminder.getClaimedBy()).isNull();
+		assertThat(reminder.getClaimedUntil()).isNull();
+		assertThat(reminder.getStatus()).isEqualTo(MedicationReminder.ReminderStatus.PENDING);
+		verifyNoInteractions(outboxService);
+	}
+
+	@Test
+	void wheelRetriesAReminderStillLeasedByAnotherNode() {
+		runTransactions();
+		when(claimService.isEnabled()).thenReturn(true);
+		when(claimService.claim(7L, NOW)).thenReturn(false);
+		when(reminderRepository.existsByIdAndStatusAndNextReminderAtLessThanEqual(7L,
+				MedicationReminder.ReminderStatus.PENDING, NOW)).thenReturn(true);
+
+		assertThat(reminderService.fireReminder(7L, NOW)).isFalse();
+	}
+
+	@Test
+	void wheelDropsAReminderThatWasHandledElsewhere() {
+		runTransactions();
+		when(claimService.isEnabled()).thenReturn(true);
+		when(claimService.claim(7L, NOW)).thenReturn(false);
+		when(reminderRepository.existsByIdAndStatusAndNextReminderAtLessThanEqual(7L,
+				MedicationReminder.ReminderStatus.PENDING, NOW)).thenReturn(false);
+
+		assertThat(reminderService.fireReminder(7L, NOW)).isTrue();
+	}
+
+	@Test
+	void failingReminderIsIsolatedFromTheRestOfItsChunk() {
+		runTransactions();
+		MedicationReminder poison = dueReminder(1L);
+		MedicationReminder second = dueReminder(2L);
+		MedicationReminder third = dueReminder(3L);
+		when(reminderRepository.findDueChunk(any(), any(), any(), any())).thenReturn(List.of(poison, second, third));
+		// Processing without a medication throws; the others are no longer due on their own run
+		when(reminderRepository.findWithRecipientById(1L)).thenReturn(Optional.of(poison));
+		when(reminderRepository.findWithRecipientById(2L)).thenReturn(Optional.of(notDue(2L)));
+		when(reminderRepository.findWithRecipientById(3L)).thenReturn(Optional.of(notDue(3L)));
+
+		ReminderService.DueCursor next = reminderService.processDueChunk(NOW, ReminderService.DueCursor.START, 3);
+
+		assertThat(next.lastId()).isEqualTo(3L);
+		assertThat(next.size()).isEqualTo(3);
+		verify(reminderRepository).findWithRecipientById(1L);
+		verify(reminderRepository).findWithRecipientById(2L);
+		verify(reminderRepository).findWithRecipientById(3L);
+	}
+
+	private void runTransactions() {
+		when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+				invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+	}
+
+	private static MedicationReminder dueReminder(Long id) {
+		return MedicationReminder.builder()
+				.id(id)
+				.status(MedicationReminder.ReminderStatus.PENDING)
+				.nextReminderAt(NOW.minusMinutes(1))
+				.build();
+	}
+
+	private static MedicationReminder notDue(Long id) {
+		return MedicationReminder.builder()
+				.id(id)
+				.status(MedicationReminder.ReminderStatus.PENDING)
+				.nextReminderAt(NOW.plusHours(1))
+				.build();
+	}
+}
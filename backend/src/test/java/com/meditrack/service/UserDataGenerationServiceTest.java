@@ -0,0 +1,30 @@
+package com.meditrack.service;
+
+import com.meditrack.event.UserDataChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDataGenerationServiceTest {
+
+	private final UserDataGenerationService generations = new UserDataGenerationService();
+
+	@Test
+	void committedChangeMovesOnlyThatUsersGeneration() {
+		long before = generations.current(1L);
+		long other = generations.current(2L);
+
+		generations.onUserDataChanged(new UserDataChangedEvent(1L));
+
+		assertThat(generations.current(1L)).isGreaterThan(before);
+		assertThat(generations.current(2L)).isEqualTo(other);
+	}
+
+	@Test
+	void usersBeyondTheCounterCountShareOne() {
+		generations.onUserDataChanged(new UserDataChangedEvent(5L));
+
+		// Bounded memory: id 5 + 4096 lands on the same counter
+		assertThat(generations.current(5L + 4096)).isEqualTo(generations.current(5L));
+	}
+}
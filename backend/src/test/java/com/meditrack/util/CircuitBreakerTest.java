@@ -0,0 +1,87 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+	private static final long OPEN_MS = 50;
+
+	private final CircuitBreaker breaker = new CircuitBreaker(3, OPEN_MS, 4 * OPEN_MS);
+
+	@Test
+	void rejectsInvalidSettings() {
+		assertThatThrownBy(() -> new CircuitBreaker(0, OPEN_MS, OPEN_MS)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new CircuitBreaker(1, OPEN_MS, OPEN_MS - 1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void opensAfterConsecutiveFailuresOnly() {
+		fail(2);
+		breaker.onSuccess();
+		fail(2);
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		fail(1);
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+		assertThat(breaker.retryAfterMillis()).isBetween(1L, OPEN_MS);
+	}
+
+	@Test
+	void letsOneTrialThroughOnceTheOpenPeriodIsOver() throws InterruptedException {
+		fail(3);
+		sleep(OPEN_MS + 10);
+
+		assertThat(breaker.tryAcquire()).isTrue();
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(breaker.tryAcquire()).isFalse();
+
+		breaker.onSuccess();
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	@Test
+	void failedTrialDoublesTheOpenPeriod() throws InterruptedException {
+		fail(3);
+		sleep(OPEN_MS + 10);
+		assertThat(breaker.tryAcquire()).isTrue();
+
+		breaker.onFailure();
+
+		assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(breaker.retryAfterMillis()).isGreaterThan(OPEN_MS);
+		sleep(OPEN_MS + 10);
+		assertThat(breaker.tryAcquire()).isFalse();
+	}
+
+	@Test
+	void releasedPermitFreesTheTrial() throws InterruptedException {
+		fail(3);
+		sleep(OPEN_MS + 10);
+		assertThat(breaker.tryAcquire()).isTrue();
+
+		breaker.release();
+
+		assertThat(breaker.tryAcquire()).isTrue();
+	}
+
+	private void fail(int times) {
+		for (int i = 0; i < times; i++) {
+			assertThat(breaker.tryAcquire()).isTrue();
+			breaker.onFailure();
+		}
+	}
+
+	private static void sleep(long millis) throws InterruptedException {
+		TimeUnit.MILLISECONDS.sleep(millis);
+	}
+}
@@ -0,0 +1,99 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+	private final SingleFlight<String, Integer> flights = new SingleFlight<>();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Test
+	void concurrentCallersShareOneComputation() throws Exception {
+		CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flights.execute("a", this::blockingLoad));
+		awaitCalls(1);
+		AtomicReference<Object> followerResult = new AtomicReference<>();
+		Thread follower = startFollower("a", followerResult);
+
+		release.countDown();
+
+		assertThat(leader.get(1, TimeUnit.SECONDS)).isEqualTo(1);
+		follower.join(1000);
+		assertThat(followerResult.get()).isEqualTo(1);
+		assertThat(calls).hasValue(1);
+	}
+
+	@Test
+	void followersGetTheLeadersException() throws Exception {
+		IllegalStateException failure = new IllegalStateException("down");
+		CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flights.execute("a", () -> {
+			blockingLoad();
+			throw failure;
+		}));
+		awaitCalls(1);
+		AtomicReference<Object> followerResult = new AtomicReference<>();
+		Thread follower = startFollower("a", followerResult);
+
+		release.countDown();
+
+		assertThatThrownBy(() -> leader.get(1, TimeUnit.SECONDS)).hasCause(failure);
+		follower.join(1000);
+		assertThat(followerResult.get()).isSameAs(failure);
+	}
+
+	@Test
+	void differentKeysAndLaterCallsComputeAfresh() {
+		release.countDown();
+
+		assertThat(flights.execute("a", this::blockingLoad)).isEqualTo(1);
+		assertThat(flights.execute("b", this::blockingLoad)).isEqualTo(2);
+		assertThat(flights.execute("a", this::blockingLoad)).isEqualTo(3);
+	}
+
+	private Integer blockingLoad() {
+		int call = calls.incrementAndGet();
+		try {
+			release.await(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return call;
+	}
+
+	/**
+	 * Starts a caller for {@code key} and returns once it waits for the
+	 * flight in progress; its result or exception goes to {@code result}.
+	 */
+	private Thread startFollower(String key, AtomicReference<Object> result) throws InterruptedException {
+		Thread follower = new Thread(() -> {
+			try {
+				result.set(flights.execute(key, this::blockingLoad));
+			} catch (RuntimeException e) {
+				result.set(e);
+			}
+		});
+		follower.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (follower.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+		assertThat(follower.getState()).isEqualTo(Thread.State.WAITING);
+		return follower;
+	}
+
+	private void awaitCalls(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while (calls.get() < expected && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(1);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimingWheelTest {
+
+	private static final long TICK = 100;
+	private static final int SIZE = 10;
+
+	private final TimingWheel<String> wheel = new TimingWheel<>(TICK, SIZE, 0);
+
+	@Test
+	void rejectsInvalidSettings() {
+		assertThatThrownBy(() -> new TimingWheel<String>(0, SIZE, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TimingWheel<String>(TICK, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void neverExpiresEarlyAndAtMostOneTickLate() {
+		wheel.schedule("a", 250);
+
+		assertThat(wheel.nextExpiration()).isEqualTo(300);
+		assertThat(wheel.advance(249)).isEmpty();
+		assertThat(wheel.advance(299)).isEmpty();
+		assertThat(wheel.advance(300)).containsExactly("a");
+		assertThat(wheel.size()).isZero();
+		assertThat(wheel.nextExpiration()).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	void cascadesEntriesBeyondTheLowestLevel() {
+		// One level spans 1 s, so these land in the second and third levels
+		wheel.schedule("near", 150);
+		wheel.schedule("far", 2_550);
+		wheel.schedule("farther", 123_456);
+
+		assertThat(wheel.advance(1_000)).containsExactly("near");
+		assertThat(wheel.advance(2_549)).isEmpty();
+		assertThat(wheel.advance(2_600)).containsExactly("far");
+		assertThat(wheel.advance(123_455)).isEmpty();
+		assertThat(wheel.advance(123_500)).containsExactly("farther");
+	}
+
+	@Test
+	void overdueKeysAreReturnedByTheNextAdvance() {
+		wheel.advance(1_000);
+		wheel.schedule("late", 500);
+
+		assertThat(wheel.contains("late")).isTrue();
+		assertThat(wheel.nextExpiration()).isEqualTo(wheel.currentTime());
+		assertThat(wheel.advance(1_000)).containsExactly("late");
+	}
+
+	@Test
+	void reschedulingReplacesTheEntry() {
+		wheel.schedule("a", 150);
+		wheel.schedule("a", 5_000);
+
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance(1_000)).isEmpty();
+		assertThat(wheel.advance(5_100)).containsExactly("a");
+	}
+
+	@Test
+	void cancelledKeysDoNotExpire() {
+		wheel.schedule("a", 150);
+		wheel.schedule("b", 150);
+
+		assertThat(wheel.cancel("a")).isTrue();
+		assertThat(wheel.cancel("a")).isFalse();
+		assertThat(wheel.contains("a")).isFalse();
+		assertThat(wheel.advance(200)).containsExactly("b");
+	}
+
+	@Test
+	void returnsEveryKeyDueWhenAdvancingFarAhead() {
+		for (int i = 0; i < 50; i++) {
+			wheel.schedule("k" + i, i * 997L);
+		}
+
+		List<String> expired = wheel.advance(60_000);
+
+		assertThat(expired).hasSize(50);
+		assertThat(wheel.size()).isZero();
+	}
+}
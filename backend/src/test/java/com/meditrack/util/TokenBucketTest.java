@@ -0,0 +1,64 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+	// One token every 50 ms
+	private static final double RATE = 20;
+
+	@Test
+	void rejectsInvalidSettings() {
+		assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void burstIsFreeThenCallersAreSpacedOut() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(RATE, 3);
+
+		long burst = elapsedMillis(() -> {
+			for (int i = 0; i < 3; i++) {
+				bucket.acquire();
+			}
+		});
+		long paced = elapsedMillis(() -> {
+			bucket.acquire();
+			bucket.acquire();
+		});
+
+		assertThat(burst).isLessThan(40);
+		assertThat(paced).isGreaterThanOrEqualTo(80);
+	}
+
+	@Test
+	void lowPriorityCallersLeaveTheReservedTokens() throws InterruptedException {
+		TokenBucket bucket = new TokenBucket(RATE, 3);
+
+		long first = elapsedMillis(() -> bucket.acquireLeaving(2));
+		long second = elapsedMillis(() -> bucket.acquireLeaving(2));
+		long urgent = elapsedMillis(() -> {
+			bucket.acquire();
+			bucket.acquire();
+		});
+
+		assertThat(first).isLessThan(40);
+		assertThat(second).isGreaterThanOrEqualTo(40);
+		assertThat(urgent).isLessThan(40);
+	}
+
+	private static long elapsedMillis(Acquisition acquisition) throws InterruptedException {
+		long start = System.nanoTime();
+		acquisition.run();
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private interface Acquisition {
+		void run() throws InterruptedException;
+	}
+}
@@ -0,0 +1,60 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeekdayMaskTest {
+
+	// 2024-01-01 is a Monday
+	private static final LocalDateTime MONDAY_NOON = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@Test
+	void mapsDayNamesToBitsFromSunday() {
+		assertThat(WeekdayMask.dayNumber("Sunday")).isZero();
+		assertThat(WeekdayMask.dayNumber(" saturday ")).isEqualTo(6);
+		assertThat(WeekdayMask.dayNumber("Funday")).isEqualTo(-1);
+		assertThat(WeekdayMask.dayNumber(null)).isEqualTo(-1);
+
+		int mask = WeekdayMask.fromDayNames(List.of("MONDAY", "Wednesday", "Funday"));
+		assertThat(mask).isEqualTo(0b0001010);
+		assertThat(WeekdayMask.toDayNumbers(mask)).containsExactly(1, 3);
+	}
+
+	@Test
+	void firesLaterTheSameDayWhenTheDayMatches() {
+		int mondays = 1 << 1;
+
+		assertThat(WeekdayMask.nextOccurrence(mondays, LocalTime.of(18, 0), MONDAY_NOON))
+				.isEqualTo(LocalDateTime.of(2024, 1, 1, 18, 0));
+	}
+
+	@Test
+	void occurrenceIsStrictlyAfterTheGivenTime() {
+		int mondays = 1 << 1;
+
+		assertThat(WeekdayMask.nextOccurrence(mondays, LocalTime.NOON, MONDAY_NOON))
+				.isEqualTo(LocalDateTime.of(2024, 1, 8, 12, 0));
+	}
+
+	@Test
+	void skipsToTheNextMatchingDayAcrossTheWeekBoundary() {
+		int sundays = 1;
+		int saturdaysAndTuesdays = 1 << 6 | 1 << 2;
+
+		assertThat(WeekdayMask.nextOccurrence(sundays, LocalTime.of(9, 0), MONDAY_NOON))
+				.isEqualTo(LocalDateTime.of(2024, 1, 7, 9, 0));
+		assertThat(WeekdayMask.nextOccurrence(saturdaysAndTuesdays, LocalTime.of(9, 0), MONDAY_NOON))
+				.isEqualTo(LocalDateTime.of(2024, 1, 2, 9, 0));
+	}
+
+	@Test
+	void emptyMaskMeansEveryDay() {
+		assertThat(WeekdayMask.nextOccurrence(0, LocalTime.of(8, 0), MONDAY_NOON))
+				.isEqualTo(LocalDateTime.of(2024, 1, 2, 8, 0));
+	}
+}
@@ -0,0 +1,80 @@
+package com.meditrack.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WeightedLanesTest {
+
+	private final WeightedLanes<String> lanes = new WeightedLanes<>(new int[] {3, 1}, new int[] {10, 10});
+
+	@Test
+	void rejectsInvalidLanes() {
+		assertThatThrownBy(() -> new WeightedLanes<String>(new int[] {1}, new int[] {1, 1}))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new WeightedLanes<String>(new int[] {0}, new int[] {1}))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void servesBusyLanesInProportionToTheirWeights() throws InterruptedException {
+		lanes.addAll(0, Collections.nCopies(8, "urgent"));
+		lanes.addAll(1, Collections.nCopies(8, "routine"));
+
+		List<String> taken = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			taken.add(lanes.take(1));
+		}
+
+		assertThat(taken).containsExactly("urgent", "urgent", "routine", "urgent",
+				"urgent", "urgent", "routine", "urgent");
+		assertThat(lanes.size()).isEqualTo(8);
+	}
+
+	@Test
+	void idleLaneDoesNotBankCredit() throws InterruptedException {
+		lanes.addAll(1, List.of("r1", "r2"));
+		assertThat(lanes.take(1)).isEqualTo("r1");
+
+		lanes.addAll(0, List.of("u1"));
+
+		assertThat(lanes.take(1)).isEqualTo("u1");
+	}
+
+	@Test
+	void restrictedTakeOnlySeesTheUrgentLanes() throws Exception {
+		lanes.addAll(1, List.of("routine"));
+
+		CompletableFuture<String> reserved = CompletableFuture.supplyAsync(() -> {
+			try {
+				return lanes.take(0);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		TimeUnit.MILLISECONDS.sleep(50);
+		assertThat(reserved).isNotDone();
+
+		lanes.addAll(0, List.of("urgent"));
+
+		assertThat(reserved.get(1, TimeUnit.SECONDS)).isEqualTo("urgent");
+		assertThat(lanes.size()).isEqualTo(1);
+	}
+
+	@Test
+	void refusesItemsBeyondTheLaneCapacity() {
+		lanes.addAll(0, Collections.nCopies(8, "urgent"));
+
+		assertThat(lanes.remainingCapacity(0)).isEqualTo(2);
+		assertThat(lanes.remainingCapacity(1)).isEqualTo(10);
+		assertThatThrownBy(() -> lanes.addAll(0, Collections.nCopies(3, "urgent")))
+				.isInstanceOf(IllegalStateException.class);
+	}
+}
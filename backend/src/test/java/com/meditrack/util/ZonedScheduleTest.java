@@ -0,0 +1,66 @@
+package com.meditrack.util;
+
+import com.meditrack.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ZonedScheduleTest {
+
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+	@Test
+	void acceptsOnlyRegionIds() {
+		assertThat(ZonedSchedule.parse("Europe/Berlin")).isEqualTo(BERLIN);
+		assertThat(ZonedSchedule.parse("+02:00")).isNull();
+		assertThat(ZonedSchedule.parse("Mars/Olympus")).isNull();
+		assertThat(ZonedSchedule.parse(null)).isNull();
+	}
+
+	@Test
+	void unknownUserZoneFallsBackToUtc() {
+		assertThat(ZonedSchedule.zoneOf(User.builder().timeZone("Mars/Olympus").build())).isEqualTo(ZoneOffset.UTC);
+		assertThat(ZonedSchedule.zoneOf(User.builder().timeZone("Europe/Berlin").build())).isEqualTo(BERLIN);
+	}
+
+	@Test
+	void convertsWithTheOffsetOfTheDate() {
+		assertThat(ZonedSchedule.toUtc(LocalDateTime.of(2024, 1, 15, 8, 0), BERLIN))
+				.isEqualTo(LocalDateTime.of(2024, 1, 15, 7, 0));
+		assertThat(ZonedSchedule.toUtc(LocalDateTime.of(2024, 7, 15, 8, 0), BERLIN))
+				.isEqualTo(LocalDateTime.of(2024, 7, 15, 6, 0));
+		assertThat(ZonedSchedule.toLocal(LocalDateTime.of(2024, 7, 15, 6, 0), BERLIN))
+				.isEqualTo(LocalDateTime.of(2024, 7, 15, 8, 0));
+	}
+
+	@Test
+	void skippedTimeMovesForwardAndRepeatedTimeTakesTheEarlierOffset() {
+		// Clocks jump from 02:00 to 03:00 on 2024-03-31 and back from 03:00 to 02:00 on 2024-10-27
+		assertThat(ZonedSchedule.toUtc(LocalDateTime.of(2024, 3, 31, 2, 30), BERLIN))
+				.isEqualTo(LocalDateTime.of(2024, 3, 31, 1, 30));
+		assertThat(ZonedSchedule.toUtc(LocalDateTime.of(2024, 10, 27, 2, 30), BERLIN))
+				.isEqualTo(LocalDateTime.of(2024, 10, 27, 0, 30));
+	}
+
+	@Test
+	void nextOccurrenceKeepsWallClockTimeAcrossDstChange() {
+		LocalDateTime next = ZonedSchedule.nextOccurrence(0, LocalTime.of(8, 0),
+				LocalDateTime.of(2024, 3, 30, 8, 0), BERLIN);
+
+		assertThat(next).isEqualTo(LocalDateTime.of(2024, 3, 31, 6, 0));
+	}
+
+	@Test
+	void repeatedHourDoesNotFireTwice() {
+		// 01:00 UTC is 02:00 CET, after 02:30 CEST (00:30 UTC) has already fired
+		LocalDateTime next = ZonedSchedule.nextOccurrence(0, LocalTime.of(2, 30),
+				LocalDateTime.of(2024, 10, 27, 1, 0), BERLIN);
+
+		assertThat(next).isEqualTo(LocalDateTime.of(2024, 10, 28, 1, 30));
+	}
+}